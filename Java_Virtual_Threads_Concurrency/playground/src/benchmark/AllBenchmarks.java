@@ -0,0 +1,19 @@
+package benchmark;
+
+/*
+ * Runs every suite of this package with the same settings: 2 forks, 5 warmup and 20 measured iterations.
+ */
+public class AllBenchmarks {
+
+    static void main() {
+        var runner = new BenchmarkRunner(2, 5, 20);
+        runner.run(ThreadStartBenchmark.class);
+        runner.run(FibonacciBenchmark.class);
+        runner.run(FibonacciEngineBenchmark.class);
+        runner.run(LockContentionBenchmark.class);
+        runner.run(ExecutorTypesBenchmark.class);
+        runner.run(TaskLoggingBenchmark.class);
+        runner.run(AppendBufferBenchmark.class);
+        runner.run(LockStrategyBenchmark.class);
+    }
+}
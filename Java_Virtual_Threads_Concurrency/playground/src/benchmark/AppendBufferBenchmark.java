@@ -0,0 +1,87 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import section05.appendbuffer.StripedAppendBuffer;
+import section05.appendbuffer.StripedIntAppendBuffer;
+
+/*
+ * The section05 append workload (200 appends per virtual thread) from 10 to 10,000 writer threads:
+ * one list behind synchronized, a fair ReentrantLock or Collections.synchronizedList,
+ * against the striped buffers of section05.appendbuffer.
+ */
+public class AppendBufferBenchmark implements BenchmarkSuite {
+
+    private static final int[] WRITERS = {10, 100, 1_000, 10_000};
+    private static final int APPENDS_PER_WRITER = 200;
+
+    static void main() {
+        new BenchmarkRunner(1, 5, 15).run(AppendBufferBenchmark.class);
+    }
+
+    @Override
+    public List<Scenario> scenarios() {
+        var scenarios = new ArrayList<Scenario>();
+        for (int writers : WRITERS) {
+            int appends = writers * APPENDS_PER_WRITER;
+            scenarios.add(new Scenario("append-" + writers + "/synchronized", appends, () -> synchronizedAppends(writers)));
+            scenarios.add(new Scenario("append-" + writers + "/reentrant-lock-fair", appends, () -> fairLockAppends(writers)));
+            scenarios.add(new Scenario("append-" + writers + "/synchronized-list", appends, () -> synchronizedListAppends(writers)));
+            scenarios.add(new Scenario("append-" + writers + "/striped", appends, () -> stripedAppends(writers)));
+            scenarios.add(new Scenario("append-" + writers + "/striped-int", appends, () -> stripedIntAppends(writers)));
+        }
+        return scenarios;
+    }
+
+    private static void synchronizedAppends(int writers) {
+        var list = new ArrayList<Integer>();
+        Workloads.runConcurrently(writers, APPENDS_PER_WRITER, j -> {
+            synchronized (list) {
+                list.add(1);
+            }
+        });
+        check(writers, list::size);
+    }
+
+    private static void fairLockAppends(int writers) {
+        var list = new ArrayList<Integer>();
+        var lock = new ReentrantLock(true);
+        Workloads.runConcurrently(writers, APPENDS_PER_WRITER, j -> {
+            lock.lock();
+            try {
+                list.add(1);
+            } finally {
+                lock.unlock();
+            }
+        });
+        check(writers, list::size);
+    }
+
+    private static void synchronizedListAppends(int writers) {
+        var list = Collections.synchronizedList(new ArrayList<Integer>());
+        Workloads.runConcurrently(writers, APPENDS_PER_WRITER, j -> list.add(1));
+        check(writers, list::size);
+    }
+
+    private static void stripedAppends(int writers) {
+        var buffer = new StripedAppendBuffer<Integer>();
+        Workloads.runConcurrently(writers, APPENDS_PER_WRITER, j -> buffer.add(1));
+        check(writers, buffer::size);
+    }
+
+    private static void stripedIntAppends(int writers) {
+        var buffer = new StripedIntAppendBuffer();
+        Workloads.runConcurrently(writers, APPENDS_PER_WRITER, j -> buffer.add(1));
+        check(writers, buffer::size);
+    }
+
+    private static void check(int writers, Supplier<Integer> size) {
+        if (size.get() != writers * APPENDS_PER_WRITER) {
+            throw new IllegalStateException("lost updates: " + size.get());
+        }
+    }
+}
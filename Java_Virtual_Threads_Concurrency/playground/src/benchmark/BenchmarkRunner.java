@@ -0,0 +1,138 @@
+package benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A small JMH-style runner without dependencies.
+ * - every scenario runs in freshly forked JVMs, so JIT decisions and heap state of one scenario
+ *   do not leak into the next one;
+ * - each fork runs warmup iterations first and only reports the measured ones;
+ * - samples of all forks are merged into throughput and latency percentiles.
+ */
+public class BenchmarkRunner {
+
+    private static final String CHILD_FLAG = "--child";
+    private static final String RESULT_PREFIX = "BENCHMARK-RESULT ";
+
+    private final int forks;
+    private final int warmupIterations;
+    private final int measurementIterations;
+
+    public BenchmarkRunner(int forks, int warmupIterations, int measurementIterations) {
+        this.forks = forks;
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+    }
+
+    public List<Result> run(Class<? extends BenchmarkSuite> suiteClass) {
+        var results = new ArrayList<Result>();
+        for (var scenario : instantiate(suiteClass).scenarios()) {
+            var samples = new ArrayList<Long>();
+            for (int fork = 0; fork < forks; fork++) {
+                samples.addAll(fork(suiteClass, scenario));
+            }
+            var result = Result.of(scenario, samples.stream().mapToLong(Long::longValue).toArray());
+            System.out.println(result);
+            results.add(result);
+        }
+        return results;
+    }
+
+    // entry point of the forked JVMs
+    public static void main(String[] args) throws Exception {
+        if (args.length != 4 || !CHILD_FLAG.equals(args[0])) {
+            throw new IllegalArgumentException("usage: --child <suite class> <scenario> <warmup>:<iterations>");
+        }
+        @SuppressWarnings("unchecked")
+        var suiteClass = (Class<? extends BenchmarkSuite>) Class.forName(args[1]);
+        var scenario = instantiate(suiteClass).scenarios().stream()
+                .filter(s -> s.name().equals(args[2]))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("unknown scenario " + args[2]));
+        var iterations = args[3].split(":");
+
+        for (int i = 0; i < Integer.parseInt(iterations[0]); i++) {
+            scenario.operation().run();
+        }
+        var samples = new long[Integer.parseInt(iterations[1])];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            scenario.operation().run();
+            samples[i] = System.nanoTime() - start;
+        }
+        System.out.println(RESULT_PREFIX + String.join(",", Arrays.stream(samples).mapToObj(String::valueOf).toList()));
+    }
+
+    private List<Long> fork(Class<? extends BenchmarkSuite> suiteClass, Scenario scenario) {
+        var java = ProcessHandle.current().info().command().orElse("java");
+        var command = new ArrayList<String>();
+        command.add(java);
+        command.add("--enable-preview");
+        command.addAll(scenario.jvmArgs());
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"),
+                BenchmarkRunner.class.getName(), CHILD_FLAG, suiteClass.getName(), scenario.name(),
+                warmupIterations + ":" + measurementIterations));
+        try {
+            var process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            List<Long> samples = null;
+            try (var reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith(RESULT_PREFIX)) {
+                        samples = Arrays.stream(line.substring(RESULT_PREFIX.length()).split(",")).map(Long::valueOf).toList();
+                    }
+                }
+            }
+            int exitCode = process.waitFor();
+            if (exitCode != 0 || samples == null) {
+                throw new IllegalStateException("fork for " + scenario.name() + " failed with exit code " + exitCode);
+            }
+            return samples;
+        } catch (IOException e) {
+            throw new IllegalStateException("could not fork " + scenario.name(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static BenchmarkSuite instantiate(Class<? extends BenchmarkSuite> suiteClass) {
+        try {
+            return suiteClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("cannot instantiate " + suiteClass.getName(), e);
+        }
+    }
+
+    /**
+     * Latencies are per invocation, in nanoseconds; throughput is in logical operations per second.
+     */
+    public record Result(String scenario, int samples, double operationsPerSecond,
+                         long mean, long p50, long p90, long p99, long max) {
+
+        static Result of(Scenario scenario, long[] samples) {
+            var sorted = samples.clone();
+            Arrays.sort(sorted);
+            long total = Arrays.stream(sorted).sum();
+            double operationsPerSecond = total == 0 ? 0 : sorted.length * (double) scenario.operationsPerInvocation() * 1e9 / total;
+            return new Result(scenario.name(), sorted.length, operationsPerSecond, total / sorted.length,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), sorted[sorted.length - 1]);
+        }
+
+        private static long percentile(long[] sorted, double percentile) {
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)];
+        }
+
+        @Override
+        public String toString() {
+            return "%-40s %14.1f ops/s   mean %10.3f ms   p50 %10.3f ms   p90 %10.3f ms   p99 %10.3f ms   max %10.3f ms   (n=%d)".formatted(
+                    scenario, operationsPerSecond, mean / 1e6, p50 / 1e6, p90 / 1e6, p99 / 1e6, max / 1e6, samples);
+        }
+    }
+}
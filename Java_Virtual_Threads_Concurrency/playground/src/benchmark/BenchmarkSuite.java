@@ -0,0 +1,12 @@
+package benchmark;
+
+import java.util.List;
+
+/**
+ * A group of related scenarios. Implementations need a public no-arg constructor,
+ * because every fork creates its own instance.
+ */
+public interface BenchmarkSuite {
+
+    List<Scenario> scenarios();
+}
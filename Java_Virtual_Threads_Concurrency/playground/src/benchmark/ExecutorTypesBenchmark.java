@@ -0,0 +1,46 @@
+package benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/*
+ * The executor types of Lec02ExecutorServiceTypes, each running 1,000 tasks that block for 1 ms.
+ */
+public class ExecutorTypesBenchmark implements BenchmarkSuite {
+
+    private static final int TASK_COUNT = 1_000;
+    private static final Duration BLOCKING_TIME = Duration.ofMillis(1);
+
+    static void main() {
+        new BenchmarkRunner(2, 3, 10).run(ExecutorTypesBenchmark.class);
+    }
+
+    @Override
+    public List<Scenario> scenarios() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return List.of(
+                new Scenario("executor/fixed-" + cores, TASK_COUNT, () -> execute(() -> Executors.newFixedThreadPool(cores))),
+                new Scenario("executor/cached", TASK_COUNT, () -> execute(Executors::newCachedThreadPool)),
+                new Scenario("executor/virtual-per-task", TASK_COUNT, () -> execute(Executors::newVirtualThreadPerTaskExecutor))
+        );
+    }
+
+    private static void execute(Supplier<ExecutorService> executorFactory) {
+        try (var executor = executorFactory.get()) {
+            for (int i = 0; i < TASK_COUNT; i++) {
+                executor.execute(ExecutorTypesBenchmark::ioTask);
+            }
+        }
+    }
+
+    private static void ioTask() {
+        try {
+            Thread.sleep(BLOCKING_TIME);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
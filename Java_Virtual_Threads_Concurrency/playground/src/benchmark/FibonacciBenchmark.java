@@ -0,0 +1,43 @@
+package benchmark;
+
+import section03.Task;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/*
+ * The CPUTaskDemo workload (the exponential Task.findFibonacci) on platform and virtual threads.
+ * Virtual threads are not expected to win here - CPU-bound work gains nothing from them.
+ */
+public class FibonacciBenchmark implements BenchmarkSuite {
+
+    private static final int TASK_COUNT = 2 * Runtime.getRuntime().availableProcessors();
+    private static final int POSITION = 30;
+
+    static void main() {
+        new BenchmarkRunner(2, 5, 20).run(FibonacciBenchmark.class);
+    }
+
+    @Override
+    public List<Scenario> scenarios() {
+        return List.of(
+                new Scenario("fibonacci-" + POSITION + "/platform", TASK_COUNT, () -> demo(Thread.ofPlatform())),
+                new Scenario("fibonacci-" + POSITION + "/virtual", TASK_COUNT, () -> demo(Thread.ofVirtual()))
+        );
+    }
+
+    private static void demo(Thread.Builder builder) {
+        var latch = new CountDownLatch(TASK_COUNT);
+        for (int i = 0; i < TASK_COUNT; i++) {
+            builder.start(() -> {
+                Task.findFibonacci(POSITION);
+                latch.countDown();
+            });
+        }
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
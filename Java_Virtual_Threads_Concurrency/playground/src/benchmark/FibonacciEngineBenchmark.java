@@ -0,0 +1,79 @@
+package benchmark;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import section03.FibonacciEngine;
+import utils.CompletionTracker;
+
+/*
+ * Each section03.FibonacciEngine at a few positions. The exponential engine only runs at the smallest one.
+ * The memoized engine runs twice: with a fresh memo table every invocation (cold), and with one shared by all of them (warm).
+ * A last scenario has many threads share one fresh memo table and checks every number it returns.
+ */
+public class FibonacciEngineBenchmark implements BenchmarkSuite {
+
+    private static final int EXPONENTIAL_POSITION = 30;
+    private static final int[] POSITIONS = {30, 90, 1_000, 10_000};
+
+    private static final FibonacciEngine SHARED_MEMO = FibonacciEngine.memoized();
+
+    private static final int CONCURRENT_THREADS = 32;
+    private static final int CONCURRENT_POSITIONS = 2_000;
+    private static final BigInteger[] EXPECTED = IntStream.range(0, CONCURRENT_POSITIONS)
+            .mapToObj(FibonacciEngine.FAST_DOUBLING::compute)
+            .toArray(BigInteger[]::new);
+
+    static void main() {
+        new BenchmarkRunner(2, 5, 20).run(FibonacciEngineBenchmark.class);
+    }
+
+    @Override
+    public List<Scenario> scenarios() {
+        var scenarios = new ArrayList<Scenario>();
+        scenarios.add(new Scenario("fibonacci-" + EXPONENTIAL_POSITION + "/exponential",
+                () -> check(FibonacciEngine.EXPONENTIAL, EXPONENTIAL_POSITION)));
+        for (int position : POSITIONS) {
+            scenarios.add(new Scenario("fibonacci-" + position + "/iterative", () -> check(FibonacciEngine.ITERATIVE, position)));
+            scenarios.add(new Scenario("fibonacci-" + position + "/fast-doubling", () -> check(FibonacciEngine.FAST_DOUBLING, position)));
+            scenarios.add(new Scenario("fibonacci-" + position + "/memoized-cold", () -> check(FibonacciEngine.memoized(), position)));
+            scenarios.add(new Scenario("fibonacci-" + position + "/memoized-warm", () -> check(SHARED_MEMO, position)));
+        }
+        scenarios.add(new Scenario("fibonacci-0-" + CONCURRENT_POSITIONS + "/memoized-concurrent",
+                FibonacciEngineBenchmark::concurrentMemo));
+        return scenarios;
+    }
+
+    // many threads walking up a fresh memo table at the same time, checked against fast doubling. Each thread
+    // uses its own stride, so threads keep missing positions that another thread is filling right then
+    private static void concurrentMemo() {
+        var memo = FibonacciEngine.memoized();
+        var tracker = new CompletionTracker(CONCURRENT_THREADS);
+        for (int t = 0; t < CONCURRENT_THREADS; t++) {
+            int stride = t % 5 + 1;
+            // platform threads: the OS preempts them anywhere, virtual threads on few carriers rarely interleave
+            Thread.ofPlatform().start(tracker.track(() -> {
+                for (int position = 0; position < CONCURRENT_POSITIONS; position += stride) {
+                    if (!memo.compute(position).equals(EXPECTED[position])) {
+                        throw new IllegalStateException("memoized engine returned a wrong number at " + position);
+                    }
+                }
+            }));
+        }
+        try {
+            tracker.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // F(n) is even exactly when n is a multiple of 3; checking it also keeps the JIT from dropping the computation
+    private static void check(FibonacciEngine engine, int position) {
+        BigInteger result = engine.compute(position);
+        if (result.signum() <= 0 || result.testBit(0) == (position % 3 == 0)) {
+            throw new IllegalStateException("wrong Fibonacci number at " + position);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * The section05 workload - 50 virtual threads doing 200 list appends each -
+ * guarded by synchronized, a fair ReentrantLock (as in Lec05ReentrantLock) and a non-fair ReentrantLock.
+ */
+public class LockContentionBenchmark implements BenchmarkSuite {
+
+    private static final int THREADS = 50;
+    private static final int APPENDS_PER_THREAD = 200;
+
+    static void main() {
+        new BenchmarkRunner(2, 10, 30).run(LockContentionBenchmark.class);
+    }
+
+    @Override
+    public List<Scenario> scenarios() {
+        return List.of(
+                new Scenario("append/synchronized", THREADS * APPENDS_PER_THREAD, LockContentionBenchmark::synchronizedAppends),
+                new Scenario("append/reentrant-lock-fair", THREADS * APPENDS_PER_THREAD, () -> lockedAppends(new ReentrantLock(true))),
+                new Scenario("append/reentrant-lock-unfair", THREADS * APPENDS_PER_THREAD, () -> lockedAppends(new ReentrantLock(false)))
+        );
+    }
+
+    private static void synchronizedAppends() {
+        var list = new ArrayList<Integer>();
+        Workloads.runConcurrently(THREADS, APPENDS_PER_THREAD, j -> {
+            synchronized (list) {
+                list.add(1);
+            }
+        });
+        check(list);
+    }
+
+    private static void lockedAppends(Lock lock) {
+        var list = new ArrayList<Integer>();
+        Workloads.runConcurrently(THREADS, APPENDS_PER_THREAD, j -> {
+            lock.lock();
+            try {
+                list.add(1);
+            } finally {
+                lock.unlock();
+            }
+        });
+        check(list);
+    }
+
+    private static void check(List<Integer> list) {
+        if (list.size() != THREADS * APPENDS_PER_THREAD) {
+            throw new IllegalStateException("lost updates: " + list.size());
+        }
+    }
+}
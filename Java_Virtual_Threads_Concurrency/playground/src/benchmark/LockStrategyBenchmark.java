@@ -0,0 +1,59 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import section05.lockstrategy.LockStrategy;
+
+/*
+ * The section05 lock strategies on the same shared counter, write-only and read-mostly (1 write every 10 operations),
+ * so the StampedLock optimistic reads have something to win. These run with the lock metrics off; the
+ * lock-write-only-metrics scenarios repeat the write-only one with them on, to show what the recording costs.
+ */
+public class LockStrategyBenchmark implements BenchmarkSuite {
+
+    private static final int THREADS = 100;
+    private static final int OPERATIONS_PER_THREAD = 1_000;
+    private static final int WRITE_EVERY = 10;
+    private static final List<String> METRICS_OFF = List.of("-Dlock.metrics=false");
+
+    static void main() {
+        new BenchmarkRunner(2, 10, 30).run(LockStrategyBenchmark.class);
+    }
+
+    @Override
+    public List<Scenario> scenarios() {
+        var scenarios = new ArrayList<Scenario>();
+        List<Supplier<LockStrategy>> strategies = List.of(
+                LockStrategy::fairReentrantLock,
+                LockStrategy::unfairReentrantLock,
+                LockStrategy::stampedLock,
+                LockStrategy::synchronizedMonitor
+        );
+        for (var strategy : strategies) {
+            String name = strategy.get().name();
+            scenarios.add(new Scenario("lock-write-only/" + name, THREADS * OPERATIONS_PER_THREAD, METRICS_OFF,
+                    () -> run(strategy.get(), 1)));
+            scenarios.add(new Scenario("lock-read-mostly/" + name, THREADS * OPERATIONS_PER_THREAD, METRICS_OFF,
+                    () -> run(strategy.get(), WRITE_EVERY)));
+            scenarios.add(new Scenario("lock-write-only-metrics/" + name, THREADS * OPERATIONS_PER_THREAD,
+                    () -> run(strategy.get(), 1)));
+        }
+        return scenarios;
+    }
+
+    private static void run(LockStrategy strategy, int writeEvery) {
+        var counter = new long[1];
+        Workloads.runConcurrently(THREADS, OPERATIONS_PER_THREAD, j -> {
+            if (j % writeEvery == 0) {
+                strategy.write(() -> counter[0]++);
+            } else {
+                strategy.read(() -> counter[0]);
+            }
+        });
+        if (counter[0] != (long) THREADS * ((OPERATIONS_PER_THREAD + writeEvery - 1) / writeEvery)) {
+            throw new IllegalStateException("lost updates: " + counter[0]);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package benchmark;
+
+import java.util.List;
+
+/**
+ * One thing to measure. A single invocation of the operation may perform several logical operations
+ * (e.g. start and join 1,000 threads); operationsPerInvocation lets the runner report per-operation numbers.
+ * jvmArgs are added to the command line of the forks running this scenario (e.g. system properties).
+ */
+public record Scenario(String name, int operationsPerInvocation, List<String> jvmArgs, Runnable operation) {
+
+    public Scenario(String name, int operationsPerInvocation, Runnable operation) {
+        this(name, operationsPerInvocation, List.of(), operation);
+    }
+
+    public Scenario(String name, Runnable operation) {
+        this(name, 1, operation);
+    }
+}
@@ -0,0 +1,71 @@
+package benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import section01.Task;
+import utils.CompletionTracker;
+
+/*
+ * The hugeVirtualThreadSync path of section01 with a short sleep. Every scenario changes exactly one thing
+ * compared to the baseline, so each cost can be read on its own:
+ * - baseline: synchronous console appender, Task.ioIntensiveOp logging Thread.currentThread();
+ * - thread-name: same, but the lines only carry the thread name (%thread), no Thread.currentThread();
+ * - async: same as baseline, through the (blocking, lossless) async appender;
+ * - sampled: same as baseline, logging 1 in 1000 tasks.
+ * Each scenario forks with its own logging settings, the log output itself is discarded by the runner.
+ */
+public class TaskLoggingBenchmark implements BenchmarkSuite {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskLoggingBenchmark.class);
+    private static final int TASKS = 100_000;
+    private static final Duration SLEEP = Duration.ofMillis(10);
+    private static final String SYNC = "-Dlog.appender=CONSOLE";
+
+    static void main() {
+        new BenchmarkRunner(1, 2, 5).run(TaskLoggingBenchmark.class);
+    }
+
+    @Override
+    public List<Scenario> scenarios() {
+        return List.of(
+                new Scenario("task-logging/baseline", TASKS, List.of(SYNC),
+                        () -> hugeVirtualThreadSync(i -> Task.ioIntensiveOp(i, SLEEP))),
+                new Scenario("task-logging/thread-name", TASKS, List.of(SYNC),
+                        () -> hugeVirtualThreadSync(TaskLoggingBenchmark::threadNameIoIntensiveOp)),
+                new Scenario("task-logging/async", TASKS, List.of(),
+                        () -> hugeVirtualThreadSync(i -> Task.ioIntensiveOp(i, SLEEP))),
+                new Scenario("task-logging/sampled-1-in-1000", TASKS, List.of(SYNC, "-Dtask.log.sample=1000"),
+                        () -> hugeVirtualThreadSync(i -> Task.ioIntensiveOp(i, SLEEP)))
+        );
+    }
+
+    private static void hugeVirtualThreadSync(IntConsumer task) {
+        var tracker = new CompletionTracker(TASKS);
+        var builder = Thread.ofVirtual().name("bodera.virtual", 1);
+        for (int i = 1; i <= TASKS; i++) {
+            int j = i;
+            builder.start(tracker.track(() -> task.accept(j)));
+        }
+        try {
+            tracker.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // section01.Task.ioIntensiveOp without the Thread.currentThread() argument
+    private static void threadNameIoIntensiveOp(int i) {
+        try {
+            LOGGER.info("starting I/O task: {}", i);
+            Thread.sleep(SLEEP);
+            LOGGER.info("ending I/O task: {}", i);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package benchmark;
+
+import java.util.List;
+
+/*
+ * Cost of creating, starting and joining a thread: platform vs virtual.
+ */
+public class ThreadStartBenchmark implements BenchmarkSuite {
+
+    private static final int THREADS = 1_000;
+
+    static void main() {
+        new BenchmarkRunner(2, 5, 20).run(ThreadStartBenchmark.class);
+    }
+
+    @Override
+    public List<Scenario> scenarios() {
+        return List.of(
+                new Scenario("thread-start/platform", THREADS, () -> startAndJoin(Thread.ofPlatform())),
+                new Scenario("thread-start/virtual", THREADS, () -> startAndJoin(Thread.ofVirtual()))
+        );
+    }
+
+    private static void startAndJoin(Thread.Builder builder) {
+        var threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            threads[i] = builder.start(() -> { });
+        }
+        try {
+            for (var thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package benchmark;
+
+import java.util.function.IntConsumer;
+
+import utils.CompletionTracker;
+
+/**
+ * Building blocks shared by the suites.
+ */
+final class Workloads {
+
+    private Workloads() {
+    }
+
+    /**
+     * Starts one virtual thread per worker, each calling operation with 0 .. operationsPerThread - 1,
+     * and returns once all of them are done. A failing worker fails the invocation.
+     */
+    static void runConcurrently(int threads, int operationsPerThread, IntConsumer operation) {
+        var tracker = new CompletionTracker(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread.ofVirtual().start(tracker.track(() -> {
+                for (int j = 0; j < operationsPerThread; j++) {
+                    operation.accept(j);
+                }
+            }));
+        }
+        try {
+            tracker.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
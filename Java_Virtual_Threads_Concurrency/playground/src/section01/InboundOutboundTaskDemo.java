@@ -2,6 +2,8 @@ package section01;
 
 import java.util.concurrent.CountDownLatch;
 
+import utils.CompletionTracker;
+
 public class InboundOutboundTaskDemo {
     private static final int TEN_PLATFORM = 10;
     private static final int TEN_THOUSAND_PLATFORM = 10_000;
@@ -41,6 +43,7 @@ public class InboundOutboundTaskDemo {
         //smallVirtualThreadSync();
 
         //hugeVirtualThreadSync(); // Try increase to one million and set 1 minute on Thread.sleep at Task.java
+        // VirtualThreadScalingHarness runs this same experiment over several counts and sleeps and reports heap, GC and CPU
 
         smallVirtualThreadSync();
     }
@@ -137,20 +140,18 @@ public class InboundOutboundTaskDemo {
 
     private static void threadStarterVirtualSync(int numberOfThreads) {
         try {
-            CountDownLatch taskCountDown = new CountDownLatch(numberOfThreads);
+            // a single CountDownLatch would have a million threads counting down on the same word
+            CompletionTracker tracker = new CompletionTracker(numberOfThreads);
             Thread.Builder.OfVirtual threadBuilder = Thread.ofVirtual().name("bodera.virtual", 1);
 
             for (int i = 1; i <= numberOfThreads; i++) {
                 int j = i;
 
-                Thread thread = threadBuilder.unstarted(() -> {
-                    Task.ioIntensiveOp(j);
-                    taskCountDown.countDown();
-                });
+                Thread thread = threadBuilder.unstarted(tracker.track(() -> Task.ioIntensiveOp(j)));
                 thread.start();
             }
 
-            taskCountDown.await();
+            tracker.await();
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
@@ -5,17 +5,26 @@ import java.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import utils.SampledLogger;
+
 public class Task {
     private static final Logger LOGGER = LoggerFactory.getLogger(Task.class);
+    // -Dtask.log.sample=1000 logs only every 1000th task
+    private static final SampledLogger SAMPLED_LOGGER = SampledLogger.fromProperty(LOGGER, "task.log.sample");
 
     public static void ioIntensiveOp(int i) {
+        ioIntensiveOp(i, Duration.ofSeconds(10));
+    }
+
+    public static void ioIntensiveOp(int i, Duration duration) {
 
         try {
-            LOGGER.info("starting I/O task: {}. Thread info: {}", i, Thread.currentThread());
+            // Thread.currentThread() shows the carrier (@ForkJoinPool-1-worker-N), which can change between the two lines
+            SAMPLED_LOGGER.info(i, "starting I/O task: {}. Thread info: {}", i, Thread.currentThread());
 
-            Thread.sleep(Duration.ofSeconds(10));
+            Thread.sleep(duration);
 
-            LOGGER.info("ending I/O task: {}. Thread info: {}", i, Thread.currentThread());
+            SAMPLED_LOGGER.info(i, "ending I/O task: {}. Thread info: {}", i, Thread.currentThread());
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
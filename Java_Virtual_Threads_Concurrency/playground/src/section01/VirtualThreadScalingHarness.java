@@ -0,0 +1,249 @@
+package section01;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import utils.CompletionTracker;
+
+/**
+ * Sweeps virtual thread counts and sleep durations, the same shape as hugeVirtualThreadSync,
+ * and records what each point costs the JVM. Results are written as CSV and JSON.
+ *
+ * <pre>
+ * java --enable-preview -Xmx8g -cp ... section01.VirtualThreadScalingHarness [counts] [sleepsMillis] [outputPrefix]
+ * java ... section01.VirtualThreadScalingHarness 1000,10000,100000 10,1000 build/scaling
+ * </pre>
+ */
+public class VirtualThreadScalingHarness {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadScalingHarness.class);
+
+    private static final int[] DEFAULT_THREAD_COUNTS = {1_000, 10_000, 100_000, 1_000_000, 10_000_000};
+    private static final long[] DEFAULT_SLEEP_MILLIS = {10, 100, 1_000};
+    private static final String DEFAULT_OUTPUT_PREFIX = "virtual-thread-scaling";
+    // a point stops spawning (and counts as not completed) once the heap is this full
+    private static final double HEAP_LIMIT = 0.75;
+    private static final int HEAP_CHECK_INTERVAL = 1_000;
+
+    /**
+     * One point of the sweep. completed is false when the point ran out of heap: spawning stopped once the heap was
+     * 75% full (or at an OutOfMemoryError) and the threads already started were waited for. peakHeapBytes is the sum
+     * of the per-pool heap peaks, so it is an upper bound of the real peak. spawnMillis leaves out the time the
+     * spawn loop waited for the carriers to catch up before a heap check. carrierUtilization is process CPU time
+     * divided by (completion time * available processors).
+     */
+    public record ScalingPoint(int threads,
+                               long sleepMillis,
+                               boolean completed,
+                               long peakHeapBytes,
+                               long spawnMillis,
+                               long completionMillis,
+                               double carrierUtilization,
+                               long gcCount,
+                               long gcPauseMillis) {
+
+        static final String CSV_HEADER = "threads,sleep_ms,completed,peak_heap_bytes,spawn_ms,completion_ms,carrier_utilization,gc_count,gc_pause_ms";
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%d,%d,%b,%d,%d,%d,%.3f,%d,%d", threads, sleepMillis, completed, peakHeapBytes, spawnMillis,
+                    completionMillis, carrierUtilization, gcCount, gcPauseMillis);
+        }
+
+        String toJson() {
+            // Locale.ROOT: a locale with a decimal comma would break both the CSV columns and the JSON
+            return String.format(Locale.ROOT, "{\"threads\":%d,\"sleepMs\":%d,\"completed\":%b,\"peakHeapBytes\":%d,\"spawnMs\":%d,\"completionMs\":%d,"
+                    + "\"carrierUtilization\":%.3f,\"gcCount\":%d,\"gcPauseMs\":%d}", threads, sleepMillis, completed,
+                    peakHeapBytes, spawnMillis, completionMillis, carrierUtilization, gcCount, gcPauseMillis);
+        }
+    }
+
+    static void main(String[] args) throws IOException {
+        int[] threadCounts = args.length > 0 ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray() : DEFAULT_THREAD_COUNTS;
+        long[] sleepMillis = args.length > 1 ? Arrays.stream(args[1].split(",")).mapToLong(Long::parseLong).toArray() : DEFAULT_SLEEP_MILLIS;
+        String outputPrefix = args.length > 2 ? args[2] : DEFAULT_OUTPUT_PREFIX;
+
+        LOGGER.info("max heap: {} MB, processors: {}", Runtime.getRuntime().maxMemory() >> 20, Runtime.getRuntime().availableProcessors());
+
+        List<ScalingPoint> points = new ArrayList<>();
+        for (long sleep : sleepMillis) {
+            for (int threads : threadCounts) {
+                var point = measure(threads, Duration.ofMillis(sleep));
+                LOGGER.info("{}", point);
+                points.add(point);
+                if (!point.completed()) {
+                    // larger counts at this sleep duration would only fail the same way
+                    break;
+                }
+            }
+        }
+
+        var csv = Path.of(outputPrefix + ".csv");
+        var json = Path.of(outputPrefix + ".json");
+        Files.writeString(csv, ScalingPoint.CSV_HEADER + "\n"
+                + points.stream().map(ScalingPoint::toCsv).collect(Collectors.joining("\n", "", "\n")));
+        Files.writeString(json, points.stream().map(ScalingPoint::toJson).collect(Collectors.joining(",\n  ", "[\n  ", "\n]\n")));
+        LOGGER.info("report written to {} and {}", csv.toAbsolutePath(), json.toAbsolutePath());
+    }
+
+    public static ScalingPoint measure(int threads, Duration sleep) {
+        settle();
+
+        var heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTimeMillis();
+        long cpuBefore = processCpuNanos();
+
+        var tracker = new CompletionTracker(threads);
+        var mounted = new LongAdder();
+        boolean completed = true;
+        int started = 0;
+        long throttled = 0;
+        Runnable notStarted = null;
+        long start = System.nanoTime();
+        long spawned = start;
+        try {
+            for (; started < threads; started++) {
+                if (started % HEAP_CHECK_INTERVAL == 0) {
+                    throttled += awaitCarriers(started, mounted);
+                    if (heapAlmostFull()) {
+                        // stop before an OutOfMemoryError: near a full heap the JVM spends its time in GC and may never get there
+                        completed = false;
+                        break;
+                    }
+                }
+                notStarted = tracker.track(() -> {
+                    mounted.increment();
+                    try {
+                        Thread.sleep(sleep);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                Thread.startVirtualThread(notStarted);
+                notStarted = null;
+            }
+            spawned = System.nanoTime();
+            if (completed) {
+                tracker.await();
+            }
+        } catch (OutOfMemoryError | CompletionException e) {
+            // report the point as failed rather than abort the sweep; nothing that allocates here, the heap is full
+            completed = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        long end = System.nanoTime();
+        if (!completed) {
+            // the threads that did start are still sleeping; they must not run into the next point's measurements
+            if (notStarted != null) {
+                notStarted.run(); // tracked, but its thread could not be started
+            }
+            tracker.skipUntracked();
+            awaitLeftovers(tracker, sleep);
+            LOGGER.warn("ran out of heap after spawning {} of {} virtual threads", started, threads);
+        }
+
+        long cpu = processCpuNanos() - cpuBefore;
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        double utilization = cpuBefore < 0 ? -1 : cpu / ((double) (end - start) * Runtime.getRuntime().availableProcessors());
+
+        return new ScalingPoint(
+                threads,
+                sleep.toMillis(),
+                completed,
+                peakHeap,
+                Duration.ofNanos(spawned - start - throttled).toMillis(),
+                Duration.ofNanos(end - start).toMillis(),
+                utilization,
+                gcCount() - gcCountBefore,
+                gcTimeMillis() - gcTimeBefore
+        );
+    }
+
+    // a thread that has not run yet costs next to nothing, its stack only lands on the heap when it first parks:
+    // let the carriers catch up before a heap check, or a heap that looks fine fills up right after spawning stops.
+    // Returns the time spent waiting, which is not part of the spawn cost.
+    private static long awaitCarriers(int started, LongAdder mounted) throws InterruptedException {
+        long waitStart = System.nanoTime();
+        while (started - mounted.sum() > HEAP_CHECK_INTERVAL) {
+            Thread.sleep(1);
+        }
+        return System.nanoTime() - waitStart;
+    }
+
+    private static boolean heapAlmostFull() {
+        var runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory() > HEAP_LIMIT * runtime.maxMemory();
+    }
+
+    private static void awaitLeftovers(CompletionTracker tracker, Duration sleep) {
+        var timeout = sleep.multipliedBy(10).plusSeconds(10);
+        try {
+            if (!tracker.await(timeout)) {
+                LOGGER.warn("leftover virtual threads still running after {}", timeout);
+            }
+        } catch (CompletionException e) {
+            LOGGER.warn("some leftover virtual threads failed: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    // let the previous point's threads die and their stacks get collected, so they don't count against this one
+    private static void settle() {
+        System.gc();
+        try {
+            Thread.sleep(Duration.ofMillis(200));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // beans like "G1 Concurrent GC" or "ZGC Major Cycles" report concurrent work, not pauses
+    private static Stream<GarbageCollectorMXBean> pauseCollectors() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .filter(gc -> !gc.getName().contains("Concurrent") && !gc.getName().contains("Cycles"));
+    }
+
+    private static long gcCount() {
+        return pauseCollectors()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .filter(count -> count > 0)
+                .sum();
+    }
+
+    private static long gcTimeMillis() {
+        return pauseCollectors()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(time -> time > 0)
+                .sum();
+    }
+
+    private static long processCpuNanos() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getProcessCpuTime();
+        }
+        return -1;
+    }
+}
@@ -1,10 +1,10 @@
 package section03;
 
-import java.util.concurrent.CountDownLatch;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import utils.BenchmarkResult;
+import utils.CompletionTracker;
 import utils.ThreadUtils;
 
 public class CPUTaskDemo {
@@ -22,21 +22,26 @@ public class CPUTaskDemo {
             LOGGER.info("Total time taken with platform was {} seconds.", totalTimeTaken);
         }
 
+        if (!Boolean.getBoolean("cpu.demo.benchmark")) {
+            return;
+        }
+        // -Dcpu.demo.benchmark=true: same comparison, with warmup and several measured runs instead of a single one
+        LOGGER.info("builder,{}", BenchmarkResult.CSV_HEADER);
+        LOGGER.info("virtual,{}", ThreadUtils.benchmark(1, 3, () -> demo(Thread.ofVirtual())).toCsv());
+        LOGGER.info("platform,{}", ThreadUtils.benchmark(1, 3, () -> demo(Thread.ofPlatform())).toCsv());
+
 //        demo(Thread.ofVirtual());
     }
 
     private static void demo(Thread.Builder builder) {
-        var latch = new CountDownLatch(TASK_COUNT);
+        var tracker = new CompletionTracker(TASK_COUNT);
 
         for (int i = 1; i <= TASK_COUNT ; i++) {
-            builder.start(() -> {
-                Task.cpuIntensive(45);
-                latch.countDown();
-            });
+            builder.start(tracker.track(() -> Task.cpuIntensive(45)));
         }
 
         try {
-            latch.await();
+            tracker.await();
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
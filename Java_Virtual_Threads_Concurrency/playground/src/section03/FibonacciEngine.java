@@ -0,0 +1,97 @@
+package section03;
+
+import java.math.BigInteger;
+
+/**
+ * A way of computing Fibonacci numbers, picked by the caller: Task.findFibonacci(position, FibonacciEngine.ITERATIVE).
+ * Every engine returns a BigInteger, so positions past 92 (the last one that fits in a long) work too.
+ * EXPONENTIAL is the 2 ^ N recursion of Task.findFibonacci, kept as synthetic CPU load; the others are for actual results.
+ */
+@FunctionalInterface
+public interface FibonacciEngine {
+
+    // last position whose Fibonacci number fits in a long
+    int MAX_LONG_POSITION = 92;
+
+    BigInteger compute(int position);
+
+    /**
+     * 2 ^ N recursive calls; overflows past position 92, though nobody waits that long.
+     */
+    FibonacciEngine EXPONENTIAL = position -> BigInteger.valueOf(Task.findFibonacci(requireNonNegative(position)));
+
+    /**
+     * O(n) additions, on longs as long as they fit.
+     */
+    FibonacciEngine ITERATIVE = FibonacciEngine::iterative;
+
+    /**
+     * O(log n) multiplications: F(2k) = F(k) * (2 * F(k + 1) - F(k)) and F(2k + 1) = F(k)^2 + F(k + 1)^2.
+     */
+    FibonacciEngine FAST_DOUBLING = FibonacciEngine::fastDoubling;
+
+    /**
+     * A new engine with its own memo table, safe to share between threads: once a position has been computed
+     * by any thread, every other thread gets it with a map lookup.
+     */
+    static FibonacciEngine memoized() {
+        return new MemoizedFibonacci();
+    }
+
+    private static BigInteger iterative(int position) {
+        requireNonNegative(position);
+        long previous = 0;
+        long current = 1;
+        if (position <= MAX_LONG_POSITION) {
+            if (position == 0) {
+                return BigInteger.ZERO;
+            }
+            for (int i = 1; i < position; i++) {
+                long next = previous + current;
+                previous = current;
+                current = next;
+            }
+            return BigInteger.valueOf(current);
+        }
+
+        for (int i = 1; i < MAX_LONG_POSITION; i++) {
+            long next = previous + current;
+            previous = current;
+            current = next;
+        }
+        var bigPrevious = BigInteger.valueOf(previous);
+        var bigCurrent = BigInteger.valueOf(current);
+        for (int i = MAX_LONG_POSITION; i < position; i++) {
+            var next = bigPrevious.add(bigCurrent);
+            bigPrevious = bigCurrent;
+            bigCurrent = next;
+        }
+        return bigCurrent;
+    }
+
+    private static BigInteger fastDoubling(int position) {
+        requireNonNegative(position);
+        // walk the bits of position from the highest one down, keeping (F(k), F(k + 1)) for the prefix k read so far
+        var fk = BigInteger.ZERO;
+        var fk1 = BigInteger.ONE;
+        for (int bit = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(position); bit >= 0; bit--) {
+            var f2k = fk.multiply(fk1.shiftLeft(1).subtract(fk));
+            var f2k1 = fk.multiply(fk).add(fk1.multiply(fk1));
+            if ((position >>> bit & 1) == 0) {
+                fk = f2k;
+                fk1 = f2k1;
+            } else {
+                fk = f2k1;
+                fk1 = f2k.add(f2k1);
+            }
+        }
+        return fk;
+    }
+
+    private static int requireNonNegative(int position) {
+        if (position < 0) {
+            throw new IllegalArgumentException("position must not be negative: " + position);
+        }
+        return position;
+    }
+}
@@ -0,0 +1,52 @@
+package section03;
+
+import java.math.BigInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent memo table behind {@link FibonacciEngine#memoized()}.
+ * Missing positions are filled bottom-up from the highest one already known, not recursively, so a big first
+ * position neither overflows the stack nor needs a recursive computeIfAbsent (which ConcurrentHashMap forbids).
+ * Two threads filling the same range just compute the same values; putIfAbsent keeps the first.
+ * Every position up to the highest requested one stays in memory.
+ */
+class MemoizedFibonacci implements FibonacciEngine {
+
+    private final ConcurrentMap<Integer, BigInteger> memo = new ConcurrentHashMap<>();
+    // every position from 0 to filledUpTo is in memo
+    private final AtomicInteger filledUpTo = new AtomicInteger(1);
+
+    MemoizedFibonacci() {
+        memo.put(0, BigInteger.ZERO);
+        memo.put(1, BigInteger.ONE);
+    }
+
+    @Override
+    public BigInteger compute(int position) {
+        if (position < 0) {
+            throw new IllegalArgumentException("position must not be negative: " + position);
+        }
+        var known = memo.get(position);
+        if (known != null) {
+            return known;
+        }
+
+        int start = filledUpTo.get();
+        if (position <= start) {
+            // another thread filled past position since the lookup above
+            return memo.get(position);
+        }
+        var previous = memo.get(start - 1);
+        var current = memo.get(start);
+        for (int i = start + 1; i <= position; i++) {
+            var next = previous.add(current);
+            var existing = memo.putIfAbsent(i, next);
+            previous = current;
+            current = existing != null ? existing : next;
+        }
+        filledUpTo.accumulateAndGet(position, Math::max);
+        return current;
+    }
+}
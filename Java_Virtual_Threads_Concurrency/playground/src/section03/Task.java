@@ -1,5 +1,7 @@
 package section03;
 
+import java.math.BigInteger;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,4 +25,9 @@ public class Task {
 
         return findFibonacci(position - 1) + findFibonacci(position - 2);
     }
+
+    // for actual Fibonacci numbers, pick a faster engine - see FibonacciEngine
+    public static BigInteger findFibonacci(int position, FibonacciEngine engine) {
+        return engine.compute(position);
+    }
 }
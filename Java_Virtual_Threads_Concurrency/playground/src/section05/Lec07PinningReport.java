@@ -0,0 +1,68 @@
+package section05;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import section05.pinning.PinningDetector;
+import utils.ThreadUtils;
+
+/*
+    Same synchronized ioTask as Lec04DetectPinningIssue, but instead of jdk.tracePinnedThreads printing stack traces,
+    the JFR events are aggregated in-process and ranked by how long they held carriers.
+    All three variants sleep for the same time while holding their lock; only the way they lock differs.
+    On JDK 21 to 23 only the two synchronized variants show up in the report, the ReentrantLock one does not.
+    From JDK 24 on (JEP 491) a virtual thread blocking inside synchronized no longer pins, so the report stays empty.
+ */
+public class Lec07PinningReport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec07PinningReport.class);
+    private static final Lock lock = new ReentrantLock();
+    private static final Object monitor = new Object();
+    private static final int TASKS = 50;
+    private static final Duration IO_DURATION = Duration.ofMillis(20);
+
+    public static void main(String[] args) {
+        try (var detector = PinningDetector.start()) {
+            demo(Lec07PinningReport::synchronizedIoTask);
+            demo(Lec07PinningReport::lockedIoTask);
+            demo(Lec07PinningReport::synchronizedBlockIoTask);
+
+            detector.stop();
+            LOGGER.info("{} pins, {} failed submits", detector.pins(), detector.submitFailures());
+            detector.report().forEach(site -> LOGGER.info("{}", site));
+        }
+    }
+
+    private static void demo(Runnable ioTask) {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < TASKS; i++) {
+                executor.submit(ioTask);
+            }
+        }
+    }
+
+    private static synchronized void synchronizedIoTask() {
+        // using sleep to simulate I/O intensive tasks or network calls
+        ThreadUtils.sleep(IO_DURATION);
+    }
+
+    private static void synchronizedBlockIoTask() {
+        synchronized (monitor) {
+            ThreadUtils.sleep(IO_DURATION);
+        }
+    }
+
+    private static void lockedIoTask() {
+        lock.lock();
+        try {
+            ThreadUtils.sleep(IO_DURATION);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package section05;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import section05.appendbuffer.StripedAppendBuffer;
+import section05.appendbuffer.StripedIntAppendBuffer;
+import utils.ThreadUtils;
+
+/*
+    The Lec01/Lec02/Lec05 workload without a global lock: each thread appends to its own stripe of the buffer,
+    so threads only contend when they happen to share a stripe, and nothing is lost like in Lec01RaceCondition.
+    The int variant stores plain ints, no Integer is allocated per add.
+ */
+public class Lec08StripedAppendBuffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec08StripedAppendBuffer.class);
+    private static final StripedAppendBuffer<Integer> intList = new StripedAppendBuffer<>();
+    private static final StripedIntAppendBuffer intBuffer = new StripedIntAppendBuffer();
+
+    public static void main(String[] args) {
+
+        LOGGER.info("starting demo with {} stripes", intList.stripes());
+        demo(Thread.ofVirtual());
+
+        ThreadUtils.sleep(Duration.ofSeconds(1));
+
+        LOGGER.info("intList size: {}", intList.size());
+        LOGGER.info("intBuffer size: {}, sum: {}", intBuffer.size(), intBuffer.sum());
+    }
+
+    private static void demo(Thread.Builder builder) {
+        // create 50 threads
+        for (int i = 0; i < 50; i++) {
+            builder.start(() -> {
+                // do 200 in-memory tasks in each thread
+                for (int j = 0; j < 200; j++) {
+                    intList.add(1);
+                    intBuffer.add(1);
+                }
+            });
+        }
+        // by the end of the program we should have 50 * 200 = 10000 itens in both buffers
+    }
+}
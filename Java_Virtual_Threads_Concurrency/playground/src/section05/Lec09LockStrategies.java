@@ -0,0 +1,63 @@
+package section05;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import section05.lockstrategy.LockStrategy;
+import utils.CompletionTracker;
+import utils.ThreadUtils;
+
+/*
+    The Lec05 workload (50 threads x 200 appends) and the Lec06 one (a short sleep while holding the lock)
+    run with each lock strategy, logging wait time, hold time and queue length.
+    Things to look for:
+    - the fair lock has longer waits than the unfair one for the same hold times, it hands over on every release;
+    - holding a lock across I/O makes every waiter's wait as long as the sum of the holds before it, whatever the lock;
+    - with synchronized the I/O version also pins carriers (see Lec07PinningReport): with few cores it can even show
+      no waiting at all, the other threads cannot run to reach the lock while the holder keeps the carrier.
+ */
+public class Lec09LockStrategies {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec09LockStrategies.class);
+    private static final int THREADS = 50;
+
+    public static void main(String[] args) throws InterruptedException {
+        for (var strategy : strategies()) {
+            var intList = new ArrayList<Integer>();
+            run(() -> {
+                for (int j = 0; j < 200; j++) {
+                    strategy.write(() -> intList.add(1));
+                    strategy.read(intList::size);
+                }
+            });
+            LOGGER.info("intList size: {}", intList.size());
+            strategy.metrics().logTo(LOGGER);
+        }
+
+        for (var strategy : strategies()) {
+            run(() -> strategy.write(() -> ThreadUtils.sleep(Duration.ofMillis(10))));
+            strategy.metrics().logTo(LOGGER);
+        }
+    }
+
+    private static List<LockStrategy> strategies() {
+        return List.of(
+                LockStrategy.fairReentrantLock(),
+                LockStrategy.unfairReentrantLock(),
+                LockStrategy.stampedLock(),
+                LockStrategy.synchronizedMonitor()
+        );
+    }
+
+    private static void run(Runnable task) throws InterruptedException {
+        var tracker = new CompletionTracker(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            Thread.ofVirtual().start(tracker.track(task));
+        }
+        tracker.await();
+    }
+}
@@ -0,0 +1,78 @@
+package section05.appendbuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only buffer for many concurrent writers. Instead of one list behind one lock, appends go to one of several
+ * stripes picked by the writing thread, each with its own small lock, and reads merge the stripes.
+ * <p>
+ * Appends of one thread keep their order; appends of different threads have no order between them.
+ * A read locks one stripe at a time, so it sees a consistent stripe but not a point-in-time view of the whole buffer.
+ * The stripes use ReentrantLock rather than synchronized, like the rest of section05, so a writer never pins its carrier.
+ */
+public class StripedAppendBuffer<E> {
+
+    private final Stripe<E>[] stripes;
+
+    public StripedAppendBuffer() {
+        this(Stripes.defaultCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    public StripedAppendBuffer(int stripes) {
+        this.stripes = (Stripe<E>[]) new Stripe<?>[Stripes.count(stripes)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe<>();
+        }
+    }
+
+    public void add(E element) {
+        var stripe = stripes[Stripes.home(stripes.length)];
+        stripe.lock.lock();
+        try {
+            stripe.elements.add(element);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (var stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.elements.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Copies every stripe into a new list, stripe after stripe.
+     */
+    public List<E> toList() {
+        var merged = new ArrayList<E>();
+        for (var stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                merged.addAll(stripe.elements);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return merged;
+    }
+
+    public int stripes() {
+        return stripes.length;
+    }
+
+    private static class Stripe<E> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<E> elements = new ArrayList<>();
+    }
+}
@@ -0,0 +1,98 @@
+package section05.appendbuffer;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link StripedAppendBuffer} for ints: every stripe is a growable int[], so an append allocates nothing
+ * (no boxed Integer, no list node) except when a stripe grows.
+ */
+public class StripedIntAppendBuffer {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Stripe[] stripes;
+
+    public StripedIntAppendBuffer() {
+        this(Stripes.defaultCount());
+    }
+
+    public StripedIntAppendBuffer(int stripes) {
+        this.stripes = new Stripe[Stripes.count(stripes)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    public void add(int value) {
+        var stripe = stripes[Stripes.home(stripes.length)];
+        stripe.lock.lock();
+        try {
+            if (stripe.size == stripe.values.length) {
+                stripe.values = Arrays.copyOf(stripe.values, stripe.values.length * 2);
+            }
+            stripe.values[stripe.size++] = value;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (var stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.size;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (var stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (int i = 0; i < stripe.size; i++) {
+                    sum += stripe.values[i];
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Copies every stripe into a new array, stripe after stripe.
+     */
+    public int[] toArray() {
+        var merged = new int[INITIAL_CAPACITY];
+        int size = 0;
+        for (var stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                if (size + stripe.size > merged.length) {
+                    merged = Arrays.copyOf(merged, Math.max(merged.length * 2, size + stripe.size));
+                }
+                System.arraycopy(stripe.values, 0, merged, size, stripe.size);
+                size += stripe.size;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return Arrays.copyOf(merged, size);
+    }
+
+    public int stripes() {
+        return stripes.length;
+    }
+
+    private static class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int[] values = new int[INITIAL_CAPACITY];
+        private int size;
+    }
+}
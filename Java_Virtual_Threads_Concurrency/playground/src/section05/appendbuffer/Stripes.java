@@ -0,0 +1,29 @@
+package section05.appendbuffer;
+
+/**
+ * Stripe selection shared by the append buffers: a power of two number of stripes, and a thread always lands on the
+ * same home stripe so its own appends stay in order.
+ */
+final class Stripes {
+
+    private Stripes() {
+    }
+
+    static int count(int requested) {
+        if (requested <= 0) {
+            throw new IllegalArgumentException("stripes must be positive");
+        }
+        return requested == 1 ? 1 : Integer.highestOneBit(requested - 1) << 1;
+    }
+
+    static int defaultCount() {
+        return count(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    // thread ids are sequential, spread them before masking so neighbours don't share a stripe
+    static int home(int stripes) {
+        long id = Thread.currentThread().threadId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (stripes - 1);
+    }
+}
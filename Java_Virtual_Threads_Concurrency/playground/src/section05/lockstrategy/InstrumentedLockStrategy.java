@@ -0,0 +1,66 @@
+package section05.lockstrategy;
+
+import java.util.function.Supplier;
+
+/**
+ * Records the metrics around whatever withLock() does; subclasses only say how to hold their lock.
+ * With -Dlock.metrics=false nothing is recorded, to measure the bare locks.
+ */
+abstract class InstrumentedLockStrategy implements LockStrategy {
+
+    static final boolean RECORD_METRICS = Boolean.parseBoolean(System.getProperty("lock.metrics", "true"));
+
+    private final String name;
+    protected final LockMetrics metrics;
+
+    InstrumentedLockStrategy(String name) {
+        this.name = name;
+        this.metrics = new LockMetrics(name);
+    }
+
+    protected abstract <T> T withLock(Supplier<T> body);
+
+    @Override
+    public <T> T read(Supplier<T> reader) {
+        return locked(reader);
+    }
+
+    @Override
+    public void write(Runnable writer) {
+        locked(() -> {
+            writer.run();
+            return null;
+        });
+    }
+
+    protected final <T> T locked(Supplier<T> body) {
+        if (!RECORD_METRICS) {
+            return withLock(body);
+        }
+        long arrivedAt = metrics.onArrive();
+        // acquired and released timestamps, taken inside the lock and recorded once it is free again
+        var timestamps = new long[2];
+        try {
+            return withLock(() -> {
+                timestamps[0] = System.nanoTime();
+                try {
+                    return body.get();
+                } finally {
+                    timestamps[1] = System.nanoTime();
+                }
+            });
+        } finally {
+            metrics.onReleased(arrivedAt, timestamps[0], timestamps[1]);
+        }
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public LockMetrics metrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,86 @@
+package section05.lockstrategy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+import utils.HistogramSnapshot;
+import utils.LatencyHistogram;
+
+/**
+ * Contention metrics of one lock: time from asking for the lock to getting it (wait), time between getting and
+ * releasing it (hold), and how many threads were already waiting when a thread arrived (queue length).
+ * The queue length is counted by the strategy itself, so it is the same measure for every primitive,
+ * including synchronized which has no getQueueLength(). It is arrivals minus acquisitions, read without any
+ * coordination, so it is approximate under heavy contention.
+ * Only the two timestamps are taken inside the critical section; everything else is recorded after the release,
+ * and nothing here is a single contended counter that would add its own contention to the lock being measured.
+ */
+public class LockMetrics {
+
+    private final String name;
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final LatencyHistogram holdTimes = new LatencyHistogram();
+    private final LongAdder arrivals = new LongAdder();
+    private final AtomicInteger maxQueueLength = new AtomicInteger();
+    private final LongAdder queueLengthSum = new LongAdder();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder optimisticReads = new LongAdder();
+    private final LongAdder optimisticFailures = new LongAdder();
+
+    LockMetrics(String name) {
+        this.name = name;
+    }
+
+    // returns the arrival timestamp to pass to onReleased
+    long onArrive() {
+        int queued = (int) Math.max(arrivals.sum() - acquisitions.sum(), 0);
+        arrivals.increment();
+        queueLengthSum.add(queued);
+        if (queued > maxQueueLength.get()) {
+            maxQueueLength.accumulateAndGet(queued, Math::max);
+        }
+        return System.nanoTime();
+    }
+
+    // called after the lock was released, with the timestamps taken when it was acquired and just before releasing
+    void onReleased(long arrivedAtNanos, long acquiredAtNanos, long releasedAtNanos) {
+        acquisitions.increment();
+        waitTimes.record(acquiredAtNanos - arrivedAtNanos);
+        holdTimes.record(releasedAtNanos - acquiredAtNanos);
+    }
+
+    void onOptimisticRead(boolean valid) {
+        optimisticReads.increment();
+        if (!valid) {
+            optimisticFailures.increment();
+        }
+    }
+
+    public Snapshot snapshot() {
+        long count = acquisitions.sum();
+        return new Snapshot(name, count, waitTimes.snapshot(), holdTimes.snapshot(),
+                count == 0 ? 0 : (double) queueLengthSum.sum() / count, maxQueueLength.get(),
+                optimisticReads.sum(), optimisticFailures.sum());
+    }
+
+    public void logTo(Logger logger) {
+        var snapshot = snapshot();
+        logger.info("[{}] acquisitions: {}, queue length mean: {} max: {}, optimistic reads: {} ({} retried)",
+                name, snapshot.acquisitions(), "%.2f".formatted(snapshot.meanQueueLength()), snapshot.maxQueueLength(),
+                snapshot.optimisticReads(), snapshot.optimisticFailures());
+        logger.info("[{}] wait: {}", name, snapshot.waitTimes());
+        logger.info("[{}] hold: {}", name, snapshot.holdTimes());
+    }
+
+    public record Snapshot(String name,
+                           long acquisitions,
+                           HistogramSnapshot waitTimes,
+                           HistogramSnapshot holdTimes,
+                           double meanQueueLength,
+                           int maxQueueLength,
+                           long optimisticReads,
+                           long optimisticFailures) {
+    }
+}
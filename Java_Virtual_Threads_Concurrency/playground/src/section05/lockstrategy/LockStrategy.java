@@ -0,0 +1,51 @@
+package section05.lockstrategy;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A way of guarding a critical section, so the same code can be run with different primitives and compared.
+ * read() is for sections that only read shared state; strategies without a cheaper read path treat it as write().
+ * Every strategy records how long callers waited, how long they held it and how many were queued: see {@link LockMetrics}.
+ * Run with -Dlock.metrics=false to turn the recording off.
+ */
+public interface LockStrategy {
+
+    <T> T read(Supplier<T> reader);
+
+    void write(Runnable writer);
+
+    String name();
+
+    LockMetrics metrics();
+
+    /**
+     * ReentrantLock(true): the lock is handed to the longest waiter on every release, which costs a park/unpark
+     * per acquisition under contention.
+     */
+    static LockStrategy fairReentrantLock() {
+        return new ReentrantLockStrategy("reentrant-lock-fair", new ReentrantLock(true));
+    }
+
+    /**
+     * ReentrantLock(false): a releasing thread may take the lock again (barging), usually much higher throughput.
+     */
+    static LockStrategy unfairReentrantLock() {
+        return new ReentrantLockStrategy("reentrant-lock-unfair", new ReentrantLock(false));
+    }
+
+    /**
+     * StampedLock: reads run without locking and are retried under the read lock if a write happened meanwhile.
+     * Not reentrant, and a reader may see inconsistent state before validation, so it must only read fields.
+     */
+    static LockStrategy stampedLock() {
+        return new StampedLockStrategy("stamped-lock");
+    }
+
+    /**
+     * A synchronized block, the baseline. Pins the carrier if a virtual thread blocks inside it (before JDK 24).
+     */
+    static LockStrategy synchronizedMonitor() {
+        return new SynchronizedStrategy("synchronized");
+    }
+}
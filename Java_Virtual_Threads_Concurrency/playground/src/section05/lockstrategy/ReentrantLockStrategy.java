@@ -0,0 +1,24 @@
+package section05.lockstrategy;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+class ReentrantLockStrategy extends InstrumentedLockStrategy {
+
+    private final ReentrantLock lock;
+
+    ReentrantLockStrategy(String name, ReentrantLock lock) {
+        super(name);
+        this.lock = lock;
+    }
+
+    @Override
+    protected <T> T withLock(Supplier<T> body) {
+        lock.lock();
+        try {
+            return body.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
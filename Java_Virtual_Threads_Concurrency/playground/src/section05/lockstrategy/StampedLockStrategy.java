@@ -0,0 +1,58 @@
+package section05.lockstrategy;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+class StampedLockStrategy extends InstrumentedLockStrategy {
+
+    private final StampedLock lock = new StampedLock();
+
+    StampedLockStrategy(String name) {
+        super(name);
+    }
+
+    // optimistic first; an optimistic read neither waits nor holds anything, so only the fallback is timed
+    @Override
+    public <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            T value = reader.get();
+            if (lock.validate(stamp)) {
+                if (RECORD_METRICS) {
+                    metrics.onOptimisticRead(true);
+                }
+                return value;
+            }
+        }
+        if (!RECORD_METRICS) {
+            stamp = lock.readLock();
+            try {
+                return reader.get();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        metrics.onOptimisticRead(false);
+
+        long arrivedAt = metrics.onArrive();
+        stamp = lock.readLock();
+        long acquiredAt = System.nanoTime();
+        try {
+            return reader.get();
+        } finally {
+            long releasedAt = System.nanoTime();
+            lock.unlockRead(stamp);
+            metrics.onReleased(arrivedAt, acquiredAt, releasedAt);
+        }
+    }
+
+    @Override
+    protected <T> T withLock(Supplier<T> body) {
+        long stamp = lock.writeLock();
+        try {
+            return body.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package section05.lockstrategy;
+
+import java.util.function.Supplier;
+
+class SynchronizedStrategy extends InstrumentedLockStrategy {
+
+    private final Object monitor = new Object();
+
+    SynchronizedStrategy(String name) {
+        super(name);
+    }
+
+    @Override
+    protected <T> T withLock(Supplier<T> body) {
+        synchronized (monitor) {
+            return body.get();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package section05.pinning;
+
+import java.time.Duration;
+
+/**
+ * Pinning aggregated for one application frame: how often virtual threads parked while pinned with this frame on
+ * their stack, and for how long.
+ */
+public record PinSite(String frame, long count, Duration total, Duration max) {
+
+    public Duration mean() {
+        return count == 0 ? Duration.ZERO : total.dividedBy(count);
+    }
+
+    @Override
+    public String toString() {
+        return "%8d pins  total %10.1f ms  mean %8.2f ms  max %8.2f ms  %s".formatted(
+                count, total.toNanos() / 1e6, mean().toNanos() / 1e6, max.toNanos() / 1e6, frame);
+    }
+}
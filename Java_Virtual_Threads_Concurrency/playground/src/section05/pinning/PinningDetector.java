@@ -0,0 +1,131 @@
+package section05.pinning;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * In-process alternative to -Djdk.tracePinnedThreads: listens to the JFR events the JDK emits when a virtual thread
+ * parks while pinned to its carrier (jdk.VirtualThreadPinned) or cannot be scheduled at all
+ * (jdk.VirtualThreadSubmitFailed), and aggregates them by the application frames on the stack, one of which is
+ * the synchronized method or block holding the carrier.
+ * <p>
+ * Every pin is recorded (threshold 0) with its stack trace, which is fine for a demo or a load test but not free.
+ * Since JDK 24 (JEP 491) synchronized no longer pins, so there this mostly reports native frames.
+ *
+ * <pre>
+ * try (var detector = PinningDetector.start()) {
+ *     runTheLoad();
+ *     detector.stop();
+ *     detector.report().forEach(System.out::println);
+ * }
+ * </pre>
+ */
+public class PinningDetector implements AutoCloseable {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+    private static final String UNKNOWN_FRAME = "<no application frame>";
+
+    private final RecordingStream stream = new RecordingStream();
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private final LongAdder pins = new LongAdder();
+    private final LongAdder submitFailures = new LongAdder();
+
+    private PinningDetector() {
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+        stream.enable(SUBMIT_FAILED_EVENT).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.onEvent(SUBMIT_FAILED_EVENT, event -> submitFailures.increment());
+    }
+
+    public static PinningDetector start() {
+        var detector = new PinningDetector();
+        detector.stream.startAsync();
+        return detector;
+    }
+
+    /**
+     * Stops recording; events recorded up to now are delivered before this returns, so the report is complete.
+     */
+    public void stop() {
+        stream.stop();
+    }
+
+    /**
+     * Pin sites ranked by total pinned time, worst first.
+     */
+    public List<PinSite> report() {
+        return sites.entrySet().stream()
+                .map(entry -> entry.getValue().toPinSite(entry.getKey()))
+                .sorted(Comparator.comparing(PinSite::total).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public long pins() {
+        return pins.sum();
+    }
+
+    public long submitFailures() {
+        return submitFailures.sum();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    // every application frame of the stack is credited, like inclusive time in a profiler: the top one is often a
+    // helper (a sleep, a client call), the one holding the monitor is further down
+    private void onPinned(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        applicationFrames(event).forEach(frame -> sites.computeIfAbsent(frame, key -> new Site()).record(nanos));
+        pins.increment();
+    }
+
+    private static Set<String> applicationFrames(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return Set.of(UNKNOWN_FRAME);
+        }
+        Set<String> frames = event.getStackTrace().getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .filter(frame -> !isIgnoredClass(frame.getMethod().getType().getName()))
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + "(line " + frame.getLineNumber() + ")")
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return frames.isEmpty() ? Set.of(UNKNOWN_FRAME) : frames;
+    }
+
+    // lambda frames are generated classes with no line numbers, the method they call is the interesting frame
+    private static boolean isIgnoredClass(String className) {
+        return className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.")
+                || className.contains("$$Lambda");
+    }
+
+    private static class Site {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        PinSite toPinSite(String frame) {
+            return new PinSite(frame, count.sum(), Duration.ofNanos(totalNanos.sum()), Duration.ofNanos(maxNanos.get()));
+        }
+    }
+}
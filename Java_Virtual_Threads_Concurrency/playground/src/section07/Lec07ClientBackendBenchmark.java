@@ -0,0 +1,43 @@
+package section07;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.externalservices.HttpProductClient;
+import section07.externalservices.ProductClient;
+import section07.externalservices.UrlStreamProductClient;
+import section07.externalservices.stub.LatencyDistribution;
+import section07.externalservices.stub.StubServer;
+import utils.ThreadUtils;
+
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+/*
+ * Compares opening a new connection per call (URL.openStream) against one shared, pooled HttpClient.
+ * Runs against the in-process stub server so the numbers only reflect transport overhead.
+ */
+public class Lec07ClientBackendBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec07ClientBackendBenchmark.class);
+    private static final int ROUNDS = 3;
+    private static final int CALLS = 200;
+
+    static void main() {
+        try (var stubServer = StubServer.start(LatencyDistribution.none(), 0)) {
+            var urlStream = new UrlStreamProductClient(stubServer.baseUrl());
+            var httpClient = new HttpProductClient(stubServer.baseUrl());
+
+            for (int i = 0; i < ROUNDS; i++) {
+                LOGGER.info("url-stream: {} seconds for {} calls", ThreadUtils.measure(() -> fanOut(urlStream)), CALLS);
+                LOGGER.info("http-client: {} seconds for {} calls", ThreadUtils.measure(() -> fanOut(httpClient)), CALLS);
+            }
+        }
+    }
+
+    private static void fanOut(ProductClient client) {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            IntStream.rangeClosed(1, CALLS)
+                    .forEach(id -> executor.submit(() -> client.getProduct(id % 50 + 1)));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package section07;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.aggregator.AggregatorService;
+import section07.externalservices.stub.LatencyDistribution;
+import section07.externalservices.stub.StubServer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/*
+ * Starts the stub service on localhost:7070 (so Client works unchanged) and measures
+ * throughput and tail latency of AggregatorService under a long-tail latency profile.
+ */
+public class Lec08StubServerLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec08StubServerLoadTest.class);
+    private static final int REQUESTS = 1_000;
+
+    static void main() throws Exception {
+        var latency = LatencyDistribution.longTail(Duration.ofMillis(20), Duration.ofMillis(500), 0.01);
+
+        try (var stubServer = StubServer.start(latency, 0.001);
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var aggregator = new AggregatorService(executor);
+
+            long start = System.nanoTime();
+            var futures = IntStream.rangeClosed(1, REQUESTS)
+                    .mapToObj(id -> executor.submit(() -> timed(() -> aggregator.getProduct(id))))
+                    .toList();
+
+            long[] latencies = new long[REQUESTS];
+            int failures = 0;
+            for (int i = 0; i < REQUESTS; i++) {
+                latencies[i] = getOrNegative(futures.get(i));
+                if (latencies[i] < 0) {
+                    failures++;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            var succeeded = Arrays.stream(latencies).filter(l -> l >= 0).sorted().toArray();
+            LOGGER.info("requests: {}, failures: {}, backend calls: {}, injected errors: {}",
+                    REQUESTS, failures, stubServer.requestCount(), stubServer.errorCount());
+            LOGGER.info("throughput: {} req/s", String.format("%.1f", REQUESTS / (elapsed / 1_000_000_000D)));
+            LOGGER.info("latency ms p50: {}, p99: {}, max: {}",
+                    percentileMillis(succeeded, 0.50), percentileMillis(succeeded, 0.99), percentileMillis(succeeded, 1.0));
+        }
+    }
+
+    private static long timed(Callable<?> callable) throws Exception {
+        long start = System.nanoTime();
+        callable.call();
+        return System.nanoTime() - start;
+    }
+
+    private static long getOrNegative(Future<Long> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static String percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return "n/a";
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return String.format("%.2f", sortedNanos[Math.max(index, 0)] / 1_000_000D);
+    }
+}
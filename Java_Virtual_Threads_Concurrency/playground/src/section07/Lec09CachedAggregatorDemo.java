@@ -0,0 +1,59 @@
+package section07;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.aggregator.AggregatorService;
+import section07.aggregator.ProductDto;
+import section07.cache.CachePolicy;
+import section07.cache.CachingProductClient;
+import section07.externalservices.Client;
+import section07.externalservices.stub.LatencyDistribution;
+import section07.externalservices.stub.StubServer;
+import utils.ThreadUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/*
+ * Same workload as Lec04AggregatorDemo, run twice: the second pass is served from the cache.
+ */
+public class Lec09CachedAggregatorDemo {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec09CachedAggregatorDemo.class);
+
+    static void main() {
+        var productPolicy = new CachePolicy(Duration.ofMinutes(10), 1_000, 1_000_000);
+        var ratingPolicy = new CachePolicy(Duration.ofSeconds(30), 1_000, 100_000);
+        var cachingClient = new CachingProductClient(Client.shared(), productPolicy, ratingPolicy);
+
+        try (var stubServer = StubServer.start(LatencyDistribution.fixed(Duration.ofMillis(100)), 0);
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var aggregator = new AggregatorService(executor, cachingClient);
+
+            LOGGER.info("cold pass took {} seconds", ThreadUtils.measure(() -> fetchAll(executor, aggregator)));
+            LOGGER.info("warm pass took {} seconds", ThreadUtils.measure(() -> fetchAll(executor, aggregator)));
+            LOGGER.info("backend calls: {}", stubServer.requestCount());
+            LOGGER.info("product cache: {}", cachingClient.productStats());
+            LOGGER.info("rating cache: {}", cachingClient.ratingStats());
+        }
+    }
+
+    private static void fetchAll(ExecutorService executor, AggregatorService aggregator) {
+        IntStream.rangeClosed(1, 50)
+                .mapToObj(id -> executor.submit(() -> aggregator.getProduct(id)))
+                .toList()
+                .forEach(Lec09CachedAggregatorDemo::toProductDto);
+    }
+
+    private static ProductDto toProductDto(Future<ProductDto> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
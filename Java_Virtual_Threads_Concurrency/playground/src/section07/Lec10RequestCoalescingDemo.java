@@ -0,0 +1,41 @@
+package section07;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.aggregator.AggregatorService;
+import section07.externalservices.Client;
+import section07.externalservices.stub.LatencyDistribution;
+import section07.externalservices.stub.StubServer;
+import section07.singleflight.CoalescingProductClient;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/*
+ * 500 virtual threads ask for product 42 at the same moment.
+ * With coalescing only a handful of requests reach the backend.
+ */
+public class Lec10RequestCoalescingDemo {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec10RequestCoalescingDemo.class);
+    private static final int CALLERS = 500;
+
+    static void main() {
+        var coalescingClient = new CoalescingProductClient(Client.shared());
+
+        try (var stubServer = StubServer.start(LatencyDistribution.fixed(Duration.ofMillis(200)), 0);
+             var aggregatorExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var aggregator = new AggregatorService(aggregatorExecutor, coalescingClient);
+
+            // the aggregator needs its own executor: closing this one rejects the subtasks it would submit
+            try (var callers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < CALLERS; i++) {
+                    callers.submit(() -> aggregator.getProduct(42));
+                }
+            }
+
+            LOGGER.info("client calls: {}, backend calls: {}", coalescingClient.calls(), stubServer.requestCount());
+            LOGGER.info("suppression ratio: {}", String.format("%.3f", coalescingClient.suppressionRatio()));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package section07;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.aggregator.AggregatorService;
+import section07.batching.BatchingAggregator;
+import section07.externalservices.stub.LatencyDistribution;
+import section07.externalservices.stub.StubServer;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+/*
+ * Two ways of avoiding the "one task per id, two more tasks per task" fan-out of Lec04AggregatorDemo:
+ * an explicit bulk call, and a micro-batcher which groups independent single-id calls behind the scenes.
+ */
+public class Lec11BatchedAggregatorDemo {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec11BatchedAggregatorDemo.class);
+
+    static void main() throws InterruptedException, ExecutionException {
+        try (var stubServer = StubServer.start(LatencyDistribution.fixed(Duration.ofMillis(50)), 0);
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var aggregator = new AggregatorService(executor);
+
+            var ids = IntStream.rangeClosed(1, 50).boxed().toList();
+            LOGGER.info("bulk: {}", aggregator.getProducts(ids));
+
+            try (var batching = new BatchingAggregator(aggregator, 16, Duration.ofMillis(5))) {
+                var futures = ids.stream()
+                        .map(batching::getProductAsync)
+                        .toList();
+                LOGGER.info("batched: {}", futures.stream().map(CompletableFuture::join).toList());
+            }
+
+            LOGGER.info("backend calls: {}", stubServer.requestCount());
+        }
+    }
+}
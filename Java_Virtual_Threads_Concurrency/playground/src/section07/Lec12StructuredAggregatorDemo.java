@@ -0,0 +1,44 @@
+package section07;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.aggregator.AggregatorService;
+import section07.externalservices.stub.LatencyDistribution;
+import section07.externalservices.stub.StubServer;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+
+/*
+ * With a flaky, long-tailed backend the structured variant fails fast:
+ * a failing leg cancels its sibling and nothing waits past the deadline.
+ */
+public class Lec12StructuredAggregatorDemo {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec12StructuredAggregatorDemo.class);
+
+    static void main() throws InterruptedException {
+        var latency = LatencyDistribution.longTail(Duration.ofMillis(50), Duration.ofSeconds(3), 0.2);
+
+        try (var stubServer = StubServer.start(latency, 0.2);
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var aggregator = new AggregatorService(executor);
+
+            for (int id = 1; id <= 10; id++) {
+                long start = System.nanoTime();
+                try {
+                    LOGGER.info("{}", aggregator.getProduct(id, Duration.ofMillis(500)));
+                } catch (ExecutionException e) {
+                    LOGGER.info("product-{} failed fast: {}", id, e.getCause().getMessage());
+                } catch (TimeoutException e) {
+                    LOGGER.info("product-{} missed its deadline", id);
+                }
+                LOGGER.info("product-{} took {} ms", id, (System.nanoTime() - start) / 1_000_000);
+            }
+
+            LOGGER.info("backend calls: {}, injected errors: {}", stubServer.requestCount(), stubServer.errorCount());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package section07;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.aggregator.AggregatorService;
+import section07.aggregator.ProductDto;
+import section07.externalservices.stub.LatencyDistribution;
+import section07.externalservices.stub.StubServer;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/*
+ * Lec04AggregatorDemo waits on future 1 even if futures 2-50 are already done (head-of-line blocking).
+ * streamProducts hands out each product as soon as it is ready.
+ */
+public class Lec13StreamingAggregatorDemo {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec13StreamingAggregatorDemo.class);
+
+    static void main() {
+        var latency = LatencyDistribution.uniform(Duration.ofMillis(10), Duration.ofMillis(1_000));
+
+        try (var stubServer = StubServer.start(latency, 0);
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var aggregator = new AggregatorService(executor);
+            var ids = IntStream.rangeClosed(1, 50).boxed().toList();
+
+            long start = System.nanoTime();
+            var futures = ids.stream().map(id -> executor.submit(() -> aggregator.getProduct(id))).toList();
+            var first = toProductDto(futures.getFirst());
+            LOGGER.info("submission order: first result {} after {} ms", first, elapsedMillis(start));
+            futures.forEach(Lec13StreamingAggregatorDemo::toProductDto);
+
+            start = System.nanoTime();
+            try (var products = aggregator.streamProducts(ids, 50)) {
+                var firstStreamed = products.findFirst().orElseThrow();
+                LOGGER.info("completion order: first result {} after {} ms", firstStreamed, elapsedMillis(start));
+            }
+
+            LOGGER.info("backend calls: {}", stubServer.requestCount());
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static ProductDto toProductDto(Future<ProductDto> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package section07;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.aggregator.AggregatorService;
+import section07.externalservices.stub.LatencyDistribution;
+import section07.externalservices.stub.StubServer;
+import utils.ThreadUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+/*
+ * One in three backend calls takes two seconds. The degraded mode never waits that long for a rating:
+ * it answers with the last known rating (or UNKNOWN_RATING) and lets the late rating refresh it afterwards.
+ */
+public class Lec14DegradedAggregatorDemo {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec14DegradedAggregatorDemo.class);
+
+    static void main() throws ExecutionException, InterruptedException {
+        var latency = LatencyDistribution.longTail(Duration.ofMillis(30), Duration.ofSeconds(2), 0.33);
+
+        try (var stubServer = StubServer.start(latency, 0);
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var aggregator = new AggregatorService(executor);
+
+            for (int round = 1; round <= 3; round++) {
+                for (int id = 1; id <= 5; id++) {
+                    long start = System.nanoTime();
+                    var product = aggregator.getProductWithFallbackRating(id, Duration.ofMillis(100));
+                    LOGGER.info("round {}: {} in {} ms", round, product, (System.nanoTime() - start) / 1_000_000);
+                }
+                ThreadUtils.sleep(Duration.ofSeconds(2)); // let late ratings arrive
+            }
+
+            LOGGER.info("degraded responses: {}, backend calls: {}", aggregator.degradedResponses(), stubServer.requestCount());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package section07;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.aggregator.AggregatorService;
+import section07.externalservices.Client;
+import section07.externalservices.stub.LatencyDistribution;
+import section07.externalservices.stub.StubServer;
+import section07.hedging.HedgingProductClient;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+
+/*
+ * 5% of backend calls take a full second. Hedging at the recent p95 cuts most of that tail,
+ * at the cost of at most 10% extra requests.
+ */
+public class Lec15HedgedRequestsDemo {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec15HedgedRequestsDemo.class);
+    private static final int REQUESTS = 200;
+
+    static void main() throws Exception {
+        var latency = LatencyDistribution.longTail(Duration.ofMillis(20), Duration.ofSeconds(1), 0.05);
+
+        try (var stubServer = StubServer.start(latency, 0);
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var hedgingClient = new HedgingProductClient(Client.shared(), executor, 0.95, 0.10, Duration.ofMillis(100));
+
+            LOGGER.info("plain p99: {} ms", p99Millis(new AggregatorService(executor)));
+            LOGGER.info("hedged p99: {} ms", p99Millis(new AggregatorService(executor, hedgingClient)));
+            LOGGER.info("hedge rate: {}, win rate: {}, hedge delay: {}, backend calls: {}",
+                    String.format("%.3f", hedgingClient.hedgeRate()), String.format("%.3f", hedgingClient.winRate()),
+                    hedgingClient.currentHedgeDelay(), stubServer.requestCount());
+        }
+    }
+
+    private static long p99Millis(AggregatorService aggregator) throws Exception {
+        var latencies = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            long start = System.nanoTime();
+            aggregator.getProduct(i % 50 + 1);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies[(int) Math.ceil(0.99 * REQUESTS) - 1] / 1_000_000;
+    }
+}
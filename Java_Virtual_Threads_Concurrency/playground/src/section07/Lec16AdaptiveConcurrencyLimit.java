@@ -0,0 +1,50 @@
+package section07;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.concurrencylimit.AdaptiveConcurrencyLimiter;
+import section07.externalservices.Client;
+import section07.externalservices.stub.LatencyDistribution;
+import section07.externalservices.stub.StubServer;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/*
+ * Instead of hard-coding 3 permits as in Lec06ConcurrencyLimitWithSemaphore,
+ * the limit grows while the backend is healthy and backs off on errors and latency spikes.
+ */
+public class Lec16AdaptiveConcurrencyLimit {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec16AdaptiveConcurrencyLimit.class);
+
+    static void main() {
+        var latency = LatencyDistribution.longTail(Duration.ofMillis(20), Duration.ofMillis(300), 0.05);
+        var factory = Thread.ofVirtual().name("bodera-virtual", 1).factory();
+
+        try (var stubServer = StubServer.start(latency, 0.02)) {
+            var limiter = new AdaptiveConcurrencyLimiter(Executors.newThreadPerTaskExecutor(factory), 3, 1, 100);
+            var reporter = Thread.ofVirtual().start(() -> {
+                try {
+                    while (true) {
+                        LOGGER.info("limit: {}, in flight: {}, queued: {}", limiter.currentLimit(), limiter.inFlight(), limiter.queueDepth());
+                        Thread.sleep(Duration.ofMillis(250));
+                    }
+                } catch (InterruptedException e) {
+                    // demo finished
+                }
+            });
+
+            try (limiter) {
+                for (int i = 1; i <= 2_000; i++) {
+                    int id = i % 50 + 1;
+                    limiter.submit(() -> Client.getProduct(id));
+                }
+                LOGGER.info("task submitted");
+            }
+
+            reporter.interrupt();
+            LOGGER.info("final limit: {}, backend calls: {}", limiter.currentLimit(), stubServer.requestCount());
+        }
+    }
+}
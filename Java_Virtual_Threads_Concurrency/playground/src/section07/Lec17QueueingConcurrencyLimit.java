@@ -0,0 +1,49 @@
+package section07;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.concurrencylimit.ConcurrencyLimiter;
+import section07.concurrencylimit.QueueingConcurrencyLimiter;
+import section07.concurrencylimit.RejectionPolicy;
+import section07.concurrencylimit.TaskLimiter;
+import utils.ThreadUtils;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/*
+ * A million tiny tasks behind a limit of 100.
+ * ConcurrencyLimiter parks one virtual thread per task; QueueingConcurrencyLimiter keeps at most
+ * 100 threads alive and a bounded queue of tasks, blocking the producer once the queue is full.
+ */
+public class Lec17QueueingConcurrencyLimit {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec17QueueingConcurrencyLimit.class);
+    private static final int TASK_COUNT = 1_000_000;
+    private static final int LIMIT = 100;
+
+    static void main() {
+        var factory = Thread.ofVirtual().name("bodera-virtual", 1).factory();
+
+        var parking = new ConcurrencyLimiter(Executors.newThreadPerTaskExecutor(factory), LIMIT);
+        LOGGER.info("thread per task: {} seconds", ThreadUtils.measure(() -> execute(parking)));
+
+        var queueing = new QueueingConcurrencyLimiter(Executors.newThreadPerTaskExecutor(factory), LIMIT, 10_000, RejectionPolicy.BLOCK);
+        LOGGER.info("queued tasks: {} seconds", ThreadUtils.measure(() -> execute(queueing)));
+    }
+
+    private static void execute(TaskLimiter limiter) {
+        try (limiter) {
+            for (int i = 1; i <= TASK_COUNT; i++) {
+                int j = i;
+                limiter.submit(() -> j * 2);
+            }
+            LOGGER.info("task submitted, used heap: {} MB", usedHeapMegabytes());
+        }
+    }
+
+    private static long usedHeapMegabytes() {
+        var runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+    }
+}
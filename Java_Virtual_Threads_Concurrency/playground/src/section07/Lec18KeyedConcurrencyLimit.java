@@ -0,0 +1,47 @@
+package section07;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.concurrencylimit.KeyedConcurrencyLimiter;
+import section07.externalservices.Client;
+import section07.externalservices.stub.LatencyDistribution;
+import section07.externalservices.stub.StubServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * Product and rating calls share one global cap of 10, but each endpoint may only use 6 permits.
+ * A flood of rating calls therefore cannot starve the product path.
+ */
+public class Lec18KeyedConcurrencyLimit {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec18KeyedConcurrencyLimit.class);
+
+    static void main() throws Exception {
+        var factory = Thread.ofVirtual().name("bodera-virtual", 1).factory();
+
+        try (var stubServer = StubServer.start(LatencyDistribution.fixed(Duration.ofMillis(100)), 0);
+             var limiter = new KeyedConcurrencyLimiter<String>(Executors.newThreadPerTaskExecutor(factory), 10, 6, Duration.ofSeconds(30))) {
+            Client.getProduct(1); // warm up the http client so the timing below is only about permits
+
+            var ratings = new ArrayList<Future<Integer>>();
+            for (int i = 1; i <= 300; i++) {
+                int id = i % 50 + 1;
+                ratings.add(limiter.submit("rating", () -> Client.getRating(id)));
+            }
+
+            long start = System.nanoTime();
+            limiter.submit("product", () -> Client.getProduct(42)).get();
+            LOGGER.info("product answered after {} ms while {} rating calls were pending",
+                    (System.nanoTime() - start) / 1_000_000, limiter.inFlight("rating"));
+
+            for (var rating : ratings) {
+                rating.get();
+            }
+            LOGGER.info("tracked keys: {}, backend calls: {}", limiter.trackedKeys(), stubServer.requestCount());
+        }
+    }
+}
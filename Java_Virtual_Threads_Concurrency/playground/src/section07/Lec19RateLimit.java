@@ -0,0 +1,42 @@
+package section07;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.concurrencylimit.ConcurrencyLimiter;
+import section07.concurrencylimit.RateLimiter;
+import section07.concurrencylimit.TokenBucket;
+import section07.externalservices.Client;
+import section07.externalservices.stub.LatencyDistribution;
+import section07.externalservices.stub.StubServer;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/*
+ * The backend answers in 5 ms, so a concurrency limit of 3 alone would still allow ~600 calls per second.
+ * Stacking a token bucket on top keeps us within a quota of 20 calls per second (burst of 5).
+ */
+public class Lec19RateLimit {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec19RateLimit.class);
+
+    static void main() {
+        var factory = Thread.ofVirtual().name("bodera-virtual", 1).factory();
+
+        try (var stubServer = StubServer.start(LatencyDistribution.fixed(Duration.ofMillis(5)), 0)) {
+            long start = System.nanoTime();
+            try (var limiter = new RateLimiter(
+                    new ConcurrencyLimiter(Executors.newThreadPerTaskExecutor(factory), 3),
+                    new TokenBucket(20, 5))) {
+                for (int i = 1; i <= 60; i++) {
+                    int id = i;
+                    limiter.submit(() -> Client.getProduct(id));
+                }
+                LOGGER.info("task submitted");
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000D;
+            LOGGER.info("{} calls in {} seconds = {} calls/s", stubServer.requestCount(),
+                    String.format("%.2f", seconds), String.format("%.1f", stubServer.requestCount() / seconds));
+        }
+    }
+}
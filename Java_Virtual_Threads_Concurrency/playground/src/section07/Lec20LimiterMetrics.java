@@ -0,0 +1,41 @@
+package section07;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.concurrencylimit.ConcurrencyLimiter;
+import section07.externalservices.Client;
+import section07.externalservices.stub.LatencyDistribution;
+import section07.externalservices.stub.StubServer;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/*
+ * Same setup as Lec06ConcurrencyLimitWithSemaphore, but now we can see what the limit of 3 costs:
+ * wait times grow with the backlog while run times stay at the backend latency.
+ * The metrics are also exported over JMX (playground:type=Limiter).
+ */
+public class Lec20LimiterMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec20LimiterMetrics.class);
+
+    static void main() {
+        var factory = Thread.ofVirtual().name("bodera-virtual", 1).factory();
+
+        try (var stubServer = StubServer.start(LatencyDistribution.uniform(Duration.ofMillis(10), Duration.ofMillis(50)), 0)) {
+            var limiter = new ConcurrencyLimiter(Executors.newThreadPerTaskExecutor(factory), 3, "product-limiter");
+            limiter.metrics().registerMBean();
+
+            try (limiter) {
+                for (int i = 1; i <= 100; i++) {
+                    int id = i % 50 + 1;
+                    limiter.submit(() -> Client.getProduct(id));
+                }
+                LOGGER.info("task submitted");
+            }
+
+            limiter.metrics().logTo(LOGGER);
+            LOGGER.info("backend calls: {}", stubServer.requestCount());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package section07;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.concurrencylimit.ConcurrencyLimiter;
+import section07.concurrencylimit.FailureMode;
+import section07.externalservices.Client;
+import section07.externalservices.stub.LatencyDistribution;
+import section07.externalservices.stub.StubServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * Half of the backend calls fail. With FailureMode.PROPAGATE the caller sees every failure through
+ * Future.get() instead of a null, the log only carries a handful of stack traces,
+ * and the metrics count failures per exception type.
+ */
+public class Lec21LimiterFailureHandling {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Lec21LimiterFailureHandling.class);
+
+    static void main() throws InterruptedException {
+        var factory = Thread.ofVirtual().name("bodera-virtual", 1).factory();
+
+        try (var stubServer = StubServer.start(LatencyDistribution.fixed(Duration.ofMillis(10)), 0.5)) {
+            var limiter = new ConcurrencyLimiter(Executors.newThreadPerTaskExecutor(factory), 3, "product-limiter", FailureMode.PROPAGATE);
+            var futures = new ArrayList<Future<String>>();
+
+            try (limiter) {
+                for (int i = 1; i <= 100; i++) {
+                    int id = i % 50 + 1;
+                    futures.add(limiter.submit(() -> Client.getProduct(id)));
+                }
+            }
+
+            int failures = 0;
+            for (var future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failures++;
+                }
+            }
+
+            LOGGER.info("failures seen by callers: {}, injected errors: {}", failures, stubServer.errorCount());
+            limiter.metrics().logTo(LOGGER);
+        }
+    }
+}
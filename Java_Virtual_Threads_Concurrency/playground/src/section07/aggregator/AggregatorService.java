@@ -1,24 +1,171 @@
 package section07.aggregator;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.cache.CachePolicy;
+import section07.cache.ExpiringLruCache;
 import section07.externalservices.Client;
+import section07.externalservices.ProductClient;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class AggregatorService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AggregatorService.class);
+    // a fallback rating older than this is worse than admitting we don't know it
+    private static final CachePolicy LAST_KNOWN_RATINGS_POLICY = new CachePolicy(Duration.ofHours(1), 10_000, 10_000);
+
     private final ExecutorService executor;
+    private final ProductClient client;
+    private final ExpiringLruCache<Integer, Integer> lastKnownRatings = new ExpiringLruCache<>(LAST_KNOWN_RATINGS_POLICY, rating -> 1);
+    private final LongAdder degradedResponses = new LongAdder();
 
     public AggregatorService(ExecutorService executor) {
+        this(executor, Client.shared());
+    }
+
+    public AggregatorService(ExecutorService executor, ProductClient client) {
         this.executor = executor;
+        this.client = client;
     }
 
     public ProductDto getProduct(int id) throws ExecutionException, InterruptedException {
-        var product = executor.submit(() -> Client.getProduct(id));
-        var rating = executor.submit(() -> Client.getRating(id));
+        var product = executor.submit(() -> client.getProduct(id));
+        var rating = executor.submit(() -> client.getRating(id));
 
         return new ProductDto(
                 id, product.get(), rating.get()
         );
     }
+
+    /**
+     * Structured variant of {@link #getProduct(int)}: if either call fails the other one is cancelled
+     * immediately, and the whole aggregation is abandoned once the deadline passes.
+     */
+    public ProductDto getProduct(int id, Duration deadline) throws ExecutionException, InterruptedException, TimeoutException {
+        try (var scope = new FailFastScope(executor, deadline)) {
+            var product = scope.fork("product", () -> client.getProduct(id));
+            var rating = scope.fork("rating", () -> client.getRating(id));
+
+            try {
+                scope.join();
+            } finally {
+                LOGGER.debug("product-{} subtasks: {}", id, scope.subtasks());
+            }
+
+            return new ProductDto(
+                    id, product.get(), rating.get()
+            );
+        }
+    }
+
+    /**
+     * Degraded-response variant of {@link #getProduct(int)}: the rating only gets ratingBudget (counted from the call)
+     * or as long as the product call takes, whichever is longer. When it is late or fails,
+     * the last known rating for the id is used, or {@link ProductDto#UNKNOWN_RATING} if there is none.
+     * A late rating still lands in the last-known cache when it eventually arrives. If the product call fails,
+     * the rating call is cancelled.
+     */
+    public ProductDto getProductWithFallbackRating(int id, Duration ratingBudget) throws ExecutionException, InterruptedException {
+        long deadline = System.nanoTime() + ratingBudget.toNanos();
+        var product = executor.submit(() -> client.getProduct(id));
+        var rating = executor.submit(() -> {
+            Integer value = client.getRating(id);
+            if (value != null) {
+                lastKnownRatings.put(id, value);
+            }
+            return value;
+        });
+
+        String description;
+        try {
+            description = product.get();
+        } catch (ExecutionException | InterruptedException e) {
+            rating.cancel(true);
+            throw e;
+        }
+        try {
+            return new ProductDto(id, description, rating.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException | ExecutionException e) {
+            degradedResponses.increment();
+            LOGGER.debug("product-{} served with fallback rating: {}", id, e.toString());
+            var lastKnown = lastKnownRatings.getIfPresent(id);
+            return new ProductDto(id, description, lastKnown != null ? lastKnown : ProductDto.UNKNOWN_RATING);
+        }
+    }
+
+    public long degradedResponses() {
+        return degradedResponses.sum();
+    }
+
+    /**
+     * Fetches several products at once. Duplicate ids are fetched only once,
+     * and the calling thread waits on the subtasks itself, so no extra task is spawned per id.
+     * The returned map keeps the order of the first occurrence of each id.
+     */
+    public Map<Integer, ProductDto> getProducts(Collection<Integer> ids) throws ExecutionException, InterruptedException {
+        var distinctIds = new LinkedHashSet<>(ids);
+        var products = new LinkedHashMap<Integer, Future<String>>();
+        var ratings = new LinkedHashMap<Integer, Future<Integer>>();
+
+        for (int id : distinctIds) {
+            products.put(id, executor.submit(() -> client.getProduct(id)));
+            ratings.put(id, executor.submit(() -> client.getRating(id)));
+        }
+
+        var result = new LinkedHashMap<Integer, ProductDto>();
+        try {
+            for (int id : distinctIds) {
+                result.put(id, new ProductDto(id, products.get(id).get(), ratings.get(id).get()));
+            }
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            // nobody will read the other results anymore
+            products.values().forEach(future -> future.cancel(true));
+            ratings.values().forEach(future -> future.cancel(true));
+            throw e;
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link #getProducts} but settles every id on its own: each future completes with that id's product,
+     * or with the failure of its own product or rating call, whatever happens to the other ids.
+     */
+    public Map<Integer, CompletableFuture<ProductDto>> getProductsPerId(Collection<Integer> ids) {
+        var result = new LinkedHashMap<Integer, CompletableFuture<ProductDto>>();
+        for (int id : new LinkedHashSet<>(ids)) {
+            var product = CompletableFuture.supplyAsync(() -> client.getProduct(id), executor);
+            var rating = CompletableFuture.supplyAsync(() -> client.getRating(id), executor);
+            result.put(id, product.thenCombine(rating, (description, stars) -> new ProductDto(id, description, stars)));
+        }
+        return result;
+    }
+
+    /**
+     * Streams products in completion order, so a slow id never holds back ids that are already done.
+     * At most maxInFlight products are fetched at once, and more are only requested as the stream is consumed.
+     * Close the stream (try-with-resources) when stopping early to cancel the fetches still running.
+     */
+    public Stream<ProductDto> streamProducts(Collection<Integer> ids, int maxInFlight) {
+        var iterator = new CompletionOrderIterator<ProductDto>(
+                executor, new LinkedHashSet<>(ids).iterator(), maxInFlight, id -> () -> getProduct(id)
+        );
+        var spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+    }
 }
@@ -0,0 +1,75 @@
+package section07.aggregator;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Hands out results in the order they finish, not the order they were submitted.
+ * At most maxInFlight tasks run at once; the next one is only submitted when the consumer pulls a result,
+ * so a slow consumer naturally slows down the producers (pull-based backpressure).
+ */
+class CompletionOrderIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final Iterator<Integer> pendingIds;
+    private final IntFunction<Callable<T>> taskFactory;
+    private final CompletionService<T> completionService;
+    private final Set<Future<T>> inFlight = new HashSet<>();
+    private final int maxInFlight;
+
+    CompletionOrderIterator(ExecutorService executor, Iterator<Integer> ids, int maxInFlight, IntFunction<Callable<T>> taskFactory) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        this.pendingIds = ids;
+        this.taskFactory = taskFactory;
+        this.completionService = new ExecutorCompletionService<>(executor);
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public boolean hasNext() {
+        refill();
+        return !inFlight.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            var completed = completionService.take();
+            inFlight.remove(completed);
+            return completed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            close();
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    // cancels whatever is still running, e.g. when the consumer stops early
+    @Override
+    public void close() {
+        inFlight.forEach(future -> future.cancel(true));
+        inFlight.clear();
+    }
+
+    private void refill() {
+        while (inFlight.size() < maxInFlight && pendingIds.hasNext()) {
+            inFlight.add(completionService.submit(taskFactory.apply(pendingIds.next())));
+        }
+    }
+}
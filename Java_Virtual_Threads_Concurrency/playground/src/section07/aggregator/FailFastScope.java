@@ -0,0 +1,135 @@
+package section07.aggregator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A small structured-concurrency scope on top of an ExecutorService, in the spirit of
+ * StructuredTaskScope.ShutdownOnFailure:
+ * - subtasks forked in the scope never outlive it (close() cancels whatever is still running);
+ * - the first failing subtask cancels its siblings straight away;
+ * - join() gives up once the deadline passes, cancelling everything left.
+ * Every subtask records how long it ran, so slow legs of a fan-out are easy to spot.
+ * Not thread-safe: fork and join are meant to be called by the owner thread only.
+ */
+public class FailFastScope implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final long deadlineNanos;
+    private final List<Subtask<?>> subtasks = new ArrayList<>();
+    private final CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+
+    public FailFastScope(ExecutorService executor, Duration timeout) {
+        this.executor = executor;
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+    }
+
+    public <T> Subtask<T> fork(String name, Callable<T> callable) {
+        var subtask = new Subtask<T>(name);
+        subtask.future = executor.submit(() -> subtask.run(callable, firstFailure));
+        subtasks.add(subtask);
+        return subtask;
+    }
+
+    /**
+     * Waits until every subtask succeeded, one failed, or the deadline passed.
+     * On failure the original cause is rethrown wrapped in an ExecutionException.
+     */
+    public void join() throws InterruptedException, ExecutionException, TimeoutException {
+        var all = CompletableFuture.allOf(subtasks.stream().map(s -> s.completion).toArray(CompletableFuture[]::new));
+        try {
+            CompletableFuture.anyOf(all, firstFailure).get(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            cancelAll();
+            throw e;
+        } catch (ExecutionException e) {
+            cancelAll();
+            throw new ExecutionException(e.getCause());
+        }
+    }
+
+    public List<Subtask<?>> subtasks() {
+        return List.copyOf(subtasks);
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+    }
+
+    private void cancelAll() {
+        subtasks.forEach(Subtask::cancel);
+    }
+
+    public static final class Subtask<T> {
+
+        private final String name;
+        private final CompletableFuture<T> completion = new CompletableFuture<>();
+        private volatile Future<?> future;
+        private volatile long elapsedNanos = -1;
+
+        private Subtask(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        // only valid after a successful join()
+        public T get() {
+            if (!completion.isDone() || completion.isCompletedExceptionally()) {
+                throw new IllegalStateException("subtask " + name + " has not completed successfully");
+            }
+            return completion.join();
+        }
+
+        public boolean isDone() {
+            return completion.isDone();
+        }
+
+        // how long the subtask ran, or null when it was cancelled before finishing
+        public Duration elapsed() {
+            return elapsedNanos < 0 ? null : Duration.ofNanos(elapsedNanos);
+        }
+
+        private Void run(Callable<T> callable, CompletableFuture<Void> firstFailure) {
+            long start = System.nanoTime();
+            try {
+                T value = callable.call();
+                elapsedNanos = System.nanoTime() - start;
+                completion.complete(value);
+            } catch (Throwable e) {
+                if (completion.isCancelled()) {
+                    return null; // interrupted by cancelAll(), not a failure of its own
+                }
+                elapsedNanos = System.nanoTime() - start;
+                completion.completeExceptionally(e);
+                firstFailure.completeExceptionally(e);
+            }
+            return null;
+        }
+
+        private void cancel() {
+            completion.cancel(false);
+            var running = future;
+            if (running != null) {
+                running.cancel(true);
+            }
+        }
+
+        @Override
+        public String toString() {
+            var elapsed = elapsed();
+            return name + "=" + (elapsed == null ? "cancelled" : elapsed.toMillis() + "ms");
+        }
+    }
+}
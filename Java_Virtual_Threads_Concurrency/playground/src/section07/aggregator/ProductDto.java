@@ -3,4 +3,7 @@ package section07.aggregator;
 public record ProductDto(int id,
                          String description,
                          int rating) {
+
+    // used when the rating could not be fetched in time and no earlier rating is known
+    public static final int UNKNOWN_RATING = -1;
 }
@@ -0,0 +1,35 @@
+package section07.batching;
+
+import section07.aggregator.AggregatorService;
+import section07.aggregator.ProductDto;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Single-id front door for {@link AggregatorService#getProductsPerId}: concurrent getProduct calls are
+ * grouped by a {@link MicroBatcher} and served by one bulk call per batch. Each caller gets the result or the
+ * failure of its own id.
+ */
+public class BatchingAggregator implements AutoCloseable {
+
+    private final MicroBatcher<Integer, ProductDto> batcher;
+
+    public BatchingAggregator(AggregatorService aggregator, int maxBatchSize, Duration maxDelay) {
+        this.batcher = new MicroBatcher<>(aggregator::getProductsPerId, maxBatchSize, maxDelay);
+    }
+
+    public ProductDto getProduct(int id) throws ExecutionException, InterruptedException {
+        return batcher.submit(id).get();
+    }
+
+    public CompletableFuture<ProductDto> getProductAsync(int id) {
+        return batcher.submit(id);
+    }
+
+    @Override
+    public void close() {
+        batcher.close();
+    }
+}
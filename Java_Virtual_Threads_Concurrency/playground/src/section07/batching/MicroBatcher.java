@@ -0,0 +1,139 @@
+package section07.batching;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Collects single-key requests that arrive close together and hands them to a bulk loader in one go.
+ * A batch is dispatched once it reaches maxBatchSize keys or once maxDelay has passed since its first key,
+ * whichever happens first. Identical keys inside one batch are loaded once.
+ * The loader returns one future per key, so a key that fails only fails its own waiters, not the whole batch.
+ */
+public class MicroBatcher<K, V> implements AutoCloseable {
+
+    private final Function<List<K>, Map<K, CompletableFuture<V>>> batchLoader;
+    private final int maxBatchSize;
+    private final Duration maxDelay;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("micro-batcher-timer").factory()
+    );
+    private Batch<K, V> current = new Batch<>();
+    private boolean closed;
+
+    public MicroBatcher(Function<List<K>, Map<K, CompletableFuture<V>>> batchLoader, int maxBatchSize, Duration maxDelay) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.batchLoader = batchLoader;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+    }
+
+    public CompletableFuture<V> submit(K key) {
+        var future = new CompletableFuture<V>();
+        Batch<K, V> full = null;
+
+        lock.lock();
+        try {
+            if (closed) {
+                // checked before enqueueing: the timer is gone, a key added now would never be dispatched
+                throw new IllegalStateException("batcher is closed");
+            }
+            var batch = current;
+            batch.waiters.computeIfAbsent(key, k -> new ArrayList<>()).add(future);
+            if (batch.waiters.size() == 1) {
+                timer.schedule(() -> flush(batch), maxDelay.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            if (batch.waiters.size() >= maxBatchSize) {
+                full = detach();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (full != null) {
+            Thread.ofVirtual().start(dispatcher(full));
+        }
+        return future;
+    }
+
+    @Override
+    public void close() {
+        Batch<K, V> remaining;
+        lock.lock();
+        try {
+            closed = true;
+            remaining = detach();
+        } finally {
+            lock.unlock();
+        }
+        dispatcher(remaining).run();
+        timer.shutdownNow();
+    }
+
+    private void flush(Batch<K, V> batch) {
+        lock.lock();
+        try {
+            if (current != batch) {
+                return; // already dispatched because it filled up
+            }
+            detach();
+        } finally {
+            lock.unlock();
+        }
+        Thread.ofVirtual().start(dispatcher(batch));
+    }
+
+    // caller must hold the lock
+    private Batch<K, V> detach() {
+        var batch = current;
+        current = new Batch<>();
+        return batch;
+    }
+
+    private Runnable dispatcher(Batch<K, V> batch) {
+        return () -> {
+            if (batch.waiters.isEmpty()) {
+                return;
+            }
+            try {
+                var results = batchLoader.apply(new ArrayList<>(batch.waiters.keySet()));
+                batch.waiters.forEach((key, futures) -> {
+                    var result = results.get(key);
+                    if (result == null) {
+                        var missing = new NoSuchElementException("no value loaded for " + key);
+                        futures.forEach(future -> future.completeExceptionally(missing));
+                        return;
+                    }
+                    result.whenComplete((value, error) -> futures.forEach(future -> {
+                        if (error == null) {
+                            future.complete(value);
+                        } else {
+                            // dependent stages wrap the original failure
+                            future.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                                    ? error.getCause() : error);
+                        }
+                    }));
+                });
+            } catch (Throwable e) {
+                batch.waiters.values().forEach(futures -> futures.forEach(f -> f.completeExceptionally(e)));
+            }
+        };
+    }
+
+    private static final class Batch<K, V> {
+        private final Map<K, List<CompletableFuture<V>>> waiters = new LinkedHashMap<>();
+    }
+}
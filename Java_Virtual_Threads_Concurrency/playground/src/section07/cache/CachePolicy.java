@@ -0,0 +1,19 @@
+package section07.cache;
+
+import java.time.Duration;
+
+/**
+ * Limits applied to one cache: how long entries live and how much the cache may hold.
+ * The cache evicts least recently used entries as soon as either maxEntries or maxWeight is exceeded.
+ */
+public record CachePolicy(Duration ttl, int maxEntries, long maxWeight) {
+
+    public CachePolicy {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        if (maxEntries <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("maxEntries and maxWeight must be positive");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package section07.cache;
+
+import section07.externalservices.ProductClient;
+
+/**
+ * Read-through cache in front of another {@link ProductClient}.
+ * Products and ratings get their own policy, so e.g. ratings can expire sooner than descriptions.
+ */
+public class CachingProductClient implements ProductClient {
+
+    // rough retained size of a String: object header + fields + char data (compact strings ignored on purpose)
+    private static final long STRING_OVERHEAD_BYTES = 40;
+    private static final long INTEGER_BYTES = 16;
+
+    private final ProductClient delegate;
+    private final ExpiringLruCache<Integer, String> products;
+    private final ExpiringLruCache<Integer, Integer> ratings;
+
+    public CachingProductClient(ProductClient delegate, CachePolicy productPolicy, CachePolicy ratingPolicy) {
+        this.delegate = delegate;
+        this.products = new ExpiringLruCache<>(productPolicy, description -> STRING_OVERHEAD_BYTES + 2L * description.length());
+        this.ratings = new ExpiringLruCache<>(ratingPolicy, rating -> INTEGER_BYTES);
+    }
+
+    @Override
+    public String getProduct(int id) {
+        return products.getOrLoad(id, delegate::getProduct);
+    }
+
+    @Override
+    public Integer getRating(int id) {
+        return ratings.getOrLoad(id, delegate::getRating);
+    }
+
+    public CacheStats productStats() {
+        return products.stats();
+    }
+
+    public CacheStats ratingStats() {
+        return ratings.stats();
+    }
+}
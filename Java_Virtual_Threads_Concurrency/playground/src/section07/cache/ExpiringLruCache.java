@@ -0,0 +1,126 @@
+package section07.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Read-through LRU cache with a time-to-live and size bounds.
+ * The map is guarded by a ReentrantLock instead of synchronized so virtual threads are never pinned.
+ * Loads run outside the lock. Concurrent misses for the same key may load it twice, and the last one wins.
+ */
+public class ExpiringLruCache<K, V> {
+
+    private final CachePolicy policy;
+    private final ToLongFunction<V> weigher;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private long weight;
+
+    public ExpiringLruCache(CachePolicy policy, ToLongFunction<V> weigher) {
+        this.policy = policy;
+        this.weigher = weigher;
+    }
+
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+        var cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        V value = loader.apply(key);
+        put(key, value);
+        return value;
+    }
+
+    public V getIfPresent(K key) {
+        lock.lock();
+        try {
+            var entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.isExpired(System.nanoTime())) {
+                remove(key, entry);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(K key, V value) {
+        long entryWeight = weigher.applyAsLong(value);
+        if (entryWeight > policy.maxWeight()) {
+            return; // would evict everything else and still not fit
+        }
+        var entry = new Entry<>(value, System.nanoTime() + policy.ttl().toNanos(), entryWeight);
+
+        lock.lock();
+        try {
+            var previous = entries.put(key, entry);
+            if (previous != null) {
+                weight -= previous.weight();
+            }
+            weight += entryWeight;
+            evictIfNeeded();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            var entry = entries.get(key);
+            if (entry != null) {
+                remove(key, entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CacheStats stats() {
+        lock.lock();
+        try {
+            return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), entries.size(), weight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // caller must hold the lock
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > policy.maxEntries() || weight > policy.maxWeight()) && eldest.hasNext()) {
+            weight -= eldest.next().getValue().weight();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    // caller must hold the lock
+    private void remove(K key, Entry<V> entry) {
+        entries.remove(key);
+        weight -= entry.weight();
+    }
+
+    private record Entry<V>(V value, long expiresAtNanos, long weight) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
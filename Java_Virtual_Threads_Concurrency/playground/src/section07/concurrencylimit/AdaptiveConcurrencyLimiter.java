@@ -0,0 +1,114 @@
+package section07.concurrencylimit;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limiter whose limit follows the health of the backend (AIMD):
+ * - every successful, fast call grows the limit by 1/limit, i.e. roughly +1 per "window" of calls;
+ * - a failure, or a call slower than rttTolerance times the best RTT seen recently,
+ *   multiplies the limit by backoffRatio.
+ * The best RTT slowly decays upwards so the baseline can follow a backend that got permanently slower.
+ */
+public class AdaptiveConcurrencyLimiter implements TaskLimiter {
+
+    private static final double BASELINE_DECAY = 1.01;
+
+    private final ExecutorService executor;
+    private final AdjustableSemaphore semaphore;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double rttTolerance;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private int grantedPermits;
+    private double baselineRttNanos = Double.MAX_VALUE;
+
+    public AdaptiveConcurrencyLimiter(ExecutorService executor, int initialLimit, int minLimit, int maxLimit) {
+        this(executor, initialLimit, minLimit, maxLimit, 0.9, 2.0);
+    }
+
+    public AdaptiveConcurrencyLimiter(ExecutorService executor, int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, double rttTolerance) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("expected 0 < minLimit <= initialLimit <= maxLimit");
+        }
+        this.executor = executor;
+        this.semaphore = new AdjustableSemaphore(initialLimit);
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.rttTolerance = rttTolerance;
+        this.limit = initialLimit;
+        this.grantedPermits = initialLimit;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> callable) {
+        return executor.submit(() -> wrapCallable(callable));
+    }
+
+    public int currentLimit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    // threads waiting for a permit
+    public int queueDepth() {
+        return semaphore.getQueueLength();
+    }
+
+    private <T> T wrapCallable(Callable<T> callable) throws Exception {
+        semaphore.acquire();
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = callable.call();
+            failed = false;
+            return result;
+        } finally {
+            inFlight.decrementAndGet();
+            semaphore.release();
+            onSample(System.nanoTime() - start, failed);
+        }
+    }
+
+    private void onSample(long rttNanos, boolean failed) {
+        lock.lock();
+        try {
+            baselineRttNanos = Math.min(baselineRttNanos * BASELINE_DECAY, rttNanos);
+            boolean overloaded = failed || rttNanos > baselineRttNanos * rttTolerance;
+
+            double newLimit = overloaded ? limit * backoffRatio : limit + 1 / limit;
+            limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+            resizePermits((int) limit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // caller must hold the lock
+    private void resizePermits(int target) {
+        int delta = target - grantedPermits;
+        if (delta > 0) {
+            semaphore.release(delta);
+        } else if (delta < 0) {
+            semaphore.reducePermits(-delta);
+        }
+        grantedPermits = target;
+    }
+
+    @Override
+    public void close() {
+        this.executor.close();
+    }
+}
@@ -0,0 +1,23 @@
+package section07.concurrencylimit;
+
+import java.io.Serial;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Semaphore whose number of permits can also shrink at runtime.
+ * Shrinking never blocks: permits that are currently held simply are not handed out again.
+ */
+class AdjustableSemaphore extends Semaphore {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    AdjustableSemaphore(int permits) {
+        super(permits);
+    }
+
+    @Override
+    protected void reducePermits(int reduction) {
+        super.reducePermits(reduction);
+    }
+}
@@ -2,38 +2,75 @@ package section07.concurrencylimit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import section07.metrics.LimiterMetrics;
+import section07.metrics.ThrottledErrorLogger;
 
+import java.time.Duration;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
 
-public class ConcurrencyLimiter implements AutoCloseable {
+public class ConcurrencyLimiter implements TaskLimiter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrencyLimiter.class);
 
     private final ExecutorService executor;
     private final Semaphore semaphore;
+    private final LimiterMetrics metrics;
+    private final FailureMode failureMode;
+    private final ThrottledErrorLogger errorLogger = new ThrottledErrorLogger(LOGGER, 10, Duration.ofSeconds(10));
 
     public ConcurrencyLimiter(ExecutorService executor, int limit) {
+        this(executor, limit, "concurrency-limiter");
+    }
+
+    public ConcurrencyLimiter(ExecutorService executor, int limit, String name) {
+        this(executor, limit, name, FailureMode.LOG_AND_RETURN_NULL);
+    }
+
+    public ConcurrencyLimiter(ExecutorService executor, int limit, String name, FailureMode failureMode) {
         this.executor = executor;
         this.semaphore = new  Semaphore(limit);
+        this.metrics = new LimiterMetrics(name, limit);
+        this.failureMode = failureMode;
     }
 
+    @Override
     public <T> Future<T> submit(Callable<T> callable) {
-        return executor.submit(() -> wrapCallable(callable));
+        long submittedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> wrapCallable(callable, submittedAt));
+        } catch (RejectedExecutionException e) {
+            metrics.onRejected();
+            throw e;
+        }
+    }
+
+    public LimiterMetrics metrics() {
+        return metrics;
     }
 
-    private <T> T wrapCallable(Callable<T> callable) {
+    private <T> T wrapCallable(Callable<T> callable, long submittedAt) throws Exception {
+        semaphore.acquire();
         try {
-            semaphore.acquire();
-            return callable.call();
+            long startedAt = metrics.onStart(submittedAt);
+            try {
+                return callable.call();
+            } finally {
+                metrics.onEnd(startedAt);
+            }
         } catch (Exception e) {
-            LOGGER.error("Exception occurred while waiting for callable", e);
+            metrics.onFailure(e);
+            errorLogger.log("Exception occurred while executing callable", e);
+            if (failureMode == FailureMode.PROPAGATE) {
+                throw e;
+            }
+            return null;
         } finally {
             semaphore.release();
         }
-        return null;
     }
 
     @Override
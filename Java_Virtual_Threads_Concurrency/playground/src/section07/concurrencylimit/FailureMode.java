@@ -0,0 +1,11 @@
+package section07.concurrencylimit;
+
+/**
+ * What a limiter does with an exception thrown by a task.
+ */
+public enum FailureMode {
+    // original behaviour: log it and complete the Future with null
+    LOG_AND_RETURN_NULL,
+    // complete the Future exceptionally, so Future.get() throws ExecutionException with the original cause
+    PROPAGATE
+}
@@ -0,0 +1,140 @@
+package section07.concurrencylimit;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-key concurrency limits (per tenant, per endpoint, ...) under one shared global cap.
+ * A task first takes a permit for its key, then a global one, so a single hot key can never use up
+ * the global permits. Keys idle for longer than idleTimeout are evicted.
+ * The hot path is a ConcurrentHashMap lookup, a CAS on the key's user count and two semaphores - no locks.
+ */
+public class KeyedConcurrencyLimiter<K> implements AutoCloseable {
+
+    private static final int SWEEP_INTERVAL = 1_024;
+    private static final int EVICTED = -1;
+
+    private final ExecutorService executor;
+    private final Semaphore globalPermits;
+    private final int perKeyLimit;
+    private final long idleTimeoutNanos;
+    private final ConcurrentHashMap<K, KeyPermits> keys = new ConcurrentHashMap<>();
+    private final AtomicInteger submissionsSinceSweep = new AtomicInteger();
+
+    public KeyedConcurrencyLimiter(ExecutorService executor, int globalLimit, int perKeyLimit, Duration idleTimeout) {
+        this.executor = executor;
+        this.globalPermits = new Semaphore(globalLimit);
+        this.perKeyLimit = perKeyLimit;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    public <T> Future<T> submit(K key, Callable<T> callable) {
+        if (submissionsSinceSweep.incrementAndGet() >= SWEEP_INTERVAL) {
+            submissionsSinceSweep.set(0);
+            evictIdleKeys();
+        }
+        return executor.submit(() -> wrapCallable(key, callable));
+    }
+
+    /**
+     * Binds this limiter to one key, e.g. to hand a per-endpoint limiter to code that expects a TaskLimiter.
+     * Closing the view does not close the shared limiter.
+     */
+    public TaskLimiter forKey(K key) {
+        return new TaskLimiter() {
+            @Override
+            public <T> Future<T> submit(Callable<T> callable) {
+                return KeyedConcurrencyLimiter.this.submit(key, callable);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    public int trackedKeys() {
+        return keys.size();
+    }
+
+    // tasks of this key that are running or waiting for a permit
+    public int inFlight(K key) {
+        var permits = keys.get(key);
+        return permits == null ? 0 : Math.max(permits.users.get(), 0);
+    }
+
+    private <T> T wrapCallable(K key, Callable<T> callable) throws Exception {
+        var permits = reserve(key);
+        try {
+            permits.semaphore.acquire();
+            try {
+                globalPermits.acquire();
+                try {
+                    return callable.call();
+                } finally {
+                    globalPermits.release();
+                }
+            } finally {
+                permits.semaphore.release();
+            }
+        } finally {
+            permits.lastUsedNanos = System.nanoTime();
+            permits.users.decrementAndGet();
+        }
+    }
+
+    // registers the caller as a user of the key's permits, so eviction will not remove them underneath it
+    private KeyPermits reserve(K key) {
+        while (true) {
+            var permits = keys.get(key);
+            if (permits == null) {
+                permits = keys.computeIfAbsent(key, k -> new KeyPermits(perKeyLimit));
+            }
+            if (permits.retain()) {
+                return permits;
+            }
+            keys.remove(key, permits); // lost the race against eviction, help remove it and retry
+        }
+    }
+
+    private void evictIdleKeys() {
+        long now = System.nanoTime();
+        keys.forEach((key, permits) -> {
+            if (now - permits.lastUsedNanos > idleTimeoutNanos && permits.users.compareAndSet(0, EVICTED)) {
+                keys.remove(key, permits);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        this.executor.close();
+    }
+
+    private static final class KeyPermits {
+        private final Semaphore semaphore;
+        private final AtomicInteger users = new AtomicInteger();
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        private KeyPermits(int limit) {
+            this.semaphore = new Semaphore(limit);
+        }
+
+        private boolean retain() {
+            while (true) {
+                int current = users.get();
+                if (current == EVICTED) {
+                    return false;
+                }
+                if (users.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
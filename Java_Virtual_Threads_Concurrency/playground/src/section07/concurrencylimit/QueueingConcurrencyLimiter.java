@@ -0,0 +1,150 @@
+package section07.concurrencylimit;
+
+import section07.metrics.LimiterMetrics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Concurrency limiter that queues the tasks, not the threads.
+ * ConcurrencyLimiter starts a virtual thread per task and parks it on the semaphore, so a backlog of 1M tasks
+ * means 1M parked threads. Here a task waits in a bounded array-backed queue as a plain FutureTask, and a thread
+ * is only started when a permit is free. A finishing thread picks up the next queued task itself,
+ * handing its permit over without starting a new thread.
+ */
+public class QueueingConcurrencyLimiter implements TaskLimiter {
+
+    private final ExecutorService executor;
+    private final int limit;
+    private final Semaphore semaphore;
+    private final BlockingQueue<FutureTask<?>> queue;
+    private final RejectionPolicy rejectionPolicy;
+    private final LimiterMetrics metrics;
+    private volatile boolean closed;
+
+    public QueueingConcurrencyLimiter(ExecutorService executor, int limit, int queueCapacity, RejectionPolicy rejectionPolicy) {
+        this.executor = executor;
+        this.limit = limit;
+        this.semaphore = new Semaphore(limit);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.rejectionPolicy = rejectionPolicy;
+        this.metrics = new LimiterMetrics("queueing-concurrency-limiter", limit);
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> callable) {
+        if (closed) {
+            metrics.onRejected();
+            throw new RejectedExecutionException("limiter is closed");
+        }
+        // wait time covers the time spent in the queue as well
+        var task = new FutureTask<>(metrics.instrument(callable));
+        if (semaphore.tryAcquire()) {
+            start(task);
+            return task;
+        }
+        if (!enqueue(task)) {
+            return task;
+        }
+        // a permit might have been released between tryAcquire and enqueue
+        drain();
+        if (closed && queue.remove(task)) {
+            // enqueued after close() emptied the queue, no worker will pick it up
+            task.cancel(false);
+        }
+        return task;
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    public long rejected() {
+        return metrics.getRejected();
+    }
+
+    public LimiterMetrics metrics() {
+        return metrics;
+    }
+
+    private boolean enqueue(FutureTask<?> task) {
+        switch (rejectionPolicy) {
+            case BLOCK -> {
+                try {
+                    queue.put(task);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("interrupted while waiting for queue space", e);
+                }
+            }
+            case DROP -> {
+                if (!queue.offer(task)) {
+                    metrics.onRejected();
+                    task.cancel(false);
+                    return false;
+                }
+            }
+            case FAIL_FAST -> {
+                if (!queue.offer(task)) {
+                    metrics.onRejected();
+                    throw new RejectedExecutionException("queue is full (" + queue.size() + " tasks waiting)");
+                }
+            }
+        }
+        return true;
+    }
+
+    // starts queued tasks for as long as there are both tasks and free permits
+    private void drain() {
+        while (!queue.isEmpty() && semaphore.tryAcquire()) {
+            var next = queue.poll();
+            if (next == null) {
+                semaphore.release(); // someone else took it, re-check the queue
+                continue;
+            }
+            start(next);
+        }
+    }
+
+    // caller must hold a permit, which is released once the thread runs out of queued work
+    private void start(FutureTask<?> first) {
+        try {
+            executor.execute(() -> {
+                FutureTask<?> task = first;
+                while (task != null) {
+                    task.run();
+                    task = queue.poll();
+                }
+                semaphore.release();
+                // a task enqueued between the last poll and the release would otherwise wait for the next submit
+                drain();
+            });
+        } catch (RejectedExecutionException e) {
+            semaphore.release();
+            first.cancel(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Rejects new tasks, lets the queued ones run, then closes the executor. Holding every permit means no worker
+     * is left: each one empties the queue before giving its permit back. A task that was still being enqueued
+     * while closing is cancelled, so nobody waits on a future that would never complete.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        semaphore.acquireUninterruptibly(limit);
+        FutureTask<?> straggler;
+        while ((straggler = queue.poll()) != null) {
+            straggler.cancel(false);
+        }
+        this.executor.close();
+    }
+}
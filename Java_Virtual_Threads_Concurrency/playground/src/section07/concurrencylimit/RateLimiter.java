@@ -0,0 +1,126 @@
+package section07.concurrencylimit;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Caps how many tasks per second are handed to the downstream limiter.
+ * Each task reserves its own slot in the token bucket on submit, so waiting tasks keep their submission order,
+ * and a timer hands it to the downstream limiter when the slot is due. Waiting costs neither a parked thread nor
+ * a downstream permit, and the downstream limiter only ever sees tasks that are allowed to run.
+ * Stacking example: new RateLimiter(new ConcurrencyLimiter(executor, 10), new TokenBucket(50, 5))
+ * gives at most 50 calls per second with at most 10 of them in flight.
+ * The returned future fails with the task's own exception, whatever the downstream limiter does with it,
+ * and cancelling it also cancels (or interrupts) the task wherever it is waiting.
+ */
+public class RateLimiter implements TaskLimiter {
+
+    private final TaskLimiter downstream;
+    private final TokenBucket bucket;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("rate-limiter-timer").factory()
+    );
+    private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+
+    public RateLimiter(TaskLimiter downstream, TokenBucket bucket) {
+        this.downstream = downstream;
+        this.bucket = bucket;
+    }
+
+    public RateLimiter(ExecutorService executor, TokenBucket bucket) {
+        this(TaskLimiter.unlimited(executor), bucket);
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> callable) {
+        var task = new RateLimitedTask<>(callable);
+        pending.add(task.result);
+        task.result.whenComplete((value, error) -> {
+            pending.remove(task.result);
+            if (task.result.isCancelled()) {
+                task.cancelStep();
+            }
+        });
+        task.submitAfter(bucket.reserve());
+        return task.result;
+    }
+
+    @Override
+    public void close() {
+        // waiting tasks still have to reach the downstream limiter before it is closed
+        while (!pending.isEmpty()) {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                    .exceptionally(error -> null)
+                    .join();
+        }
+        timer.shutdownNow();
+        downstream.close();
+    }
+
+    private final class RateLimitedTask<T> {
+
+        private final Callable<T> callable;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        // the timer entry or the downstream submission the task is currently waiting in
+        private final AtomicReference<Future<?>> step = new AtomicReference<>();
+
+        RateLimitedTask(Callable<T> callable) {
+            this.callable = callable;
+        }
+
+        void submitAfter(long delayNanos) {
+            if (delayNanos == 0) {
+                submitDownstream();
+            } else {
+                track(timer.schedule(this::submitDownstream, delayNanos, TimeUnit.NANOSECONDS));
+            }
+        }
+
+        private void submitDownstream() {
+            try {
+                track(downstream.submit(this::run));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        // runs holding the downstream permit, the token was taken on submit
+        private T run() throws Exception {
+            if (result.isDone()) {
+                return null;
+            }
+            try {
+                T value = callable.call();
+                result.complete(value);
+                return value;
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+                // still thrown, so the downstream limiter counts and logs it as usual
+                throw e;
+            }
+        }
+
+        private void track(Future<?> next) {
+            step.set(next);
+            // cancelled while the step was being created
+            if (result.isCancelled()) {
+                next.cancel(true);
+            }
+        }
+
+        void cancelStep() {
+            var current = step.get();
+            if (current != null) {
+                current.cancel(true);
+            }
+        }
+    }
+}
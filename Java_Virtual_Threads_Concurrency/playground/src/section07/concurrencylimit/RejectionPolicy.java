@@ -0,0 +1,13 @@
+package section07.concurrencylimit;
+
+/**
+ * What a bounded limiter does when its waiting queue is full.
+ */
+public enum RejectionPolicy {
+    // the submitting thread waits until there is room in the queue (backpressure)
+    BLOCK,
+    // the task is discarded and the returned Future is already cancelled
+    DROP,
+    // submit throws RejectedExecutionException
+    FAIL_FAST
+}
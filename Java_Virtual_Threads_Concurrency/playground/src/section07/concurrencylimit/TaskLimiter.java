@@ -0,0 +1,31 @@
+package section07.concurrencylimit;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Common contract of the limiters in this package, so they can be swapped or stacked.
+ */
+public interface TaskLimiter extends AutoCloseable {
+
+    <T> Future<T> submit(Callable<T> callable);
+
+    @Override
+    void close();
+
+    // no limit at all, handy as the innermost layer when stacking limiters
+    static TaskLimiter unlimited(ExecutorService executor) {
+        return new TaskLimiter() {
+            @Override
+            public <T> Future<T> submit(Callable<T> callable) {
+                return executor.submit(callable);
+            }
+
+            @Override
+            public void close() {
+                executor.close();
+            }
+        };
+    }
+}
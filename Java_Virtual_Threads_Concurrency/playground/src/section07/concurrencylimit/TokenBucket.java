@@ -0,0 +1,56 @@
+package section07.concurrencylimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as a "virtual scheduling" clock (GCRA):
+ * instead of counting tokens, it remembers when the next token becomes available and moves that
+ * instant forward by one interval per grant with a CAS. Up to burstCapacity tokens can be taken at once
+ * after an idle period; after that callers are spaced by 1 / permitsPerSecond.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong nextFreeNanos;
+
+    public TokenBucket(double permitsPerSecond, int burstCapacity) {
+        if (permitsPerSecond <= 0 || burstCapacity <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond and burstCapacity must be positive");
+        }
+        this.intervalNanos = (long) (Duration.ofSeconds(1).toNanos() / permitsPerSecond);
+        this.burstNanos = (burstCapacity - 1) * intervalNanos;
+        this.nextFreeNanos = new AtomicLong(System.nanoTime() - burstNanos);
+    }
+
+    /**
+     * Reserves one token and returns how long the caller has to wait before using it (0 = right away).
+     * Reservations are handed out in call order, so waiting callers never overtake each other.
+     */
+    public long reserve() {
+        while (true) {
+            long now = System.nanoTime();
+            long next = nextFreeNanos.get();
+            long grantAt = Math.max(next, now - burstNanos);
+            if (nextFreeNanos.compareAndSet(next, grantAt + intervalNanos)) {
+                return Math.max(0, grantAt - now);
+            }
+        }
+    }
+
+    // takes a token only if one is available right now
+    public boolean tryAcquire() {
+        while (true) {
+            long now = System.nanoTime();
+            long next = nextFreeNanos.get();
+            long grantAt = Math.max(next, now - burstNanos);
+            if (grantAt > now) {
+                return false;
+            }
+            if (nextFreeNanos.compareAndSet(next, grantAt + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+}
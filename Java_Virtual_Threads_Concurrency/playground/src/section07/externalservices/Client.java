@@ -1,33 +1,23 @@
 package section07.externalservices;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.net.URI;
-
+/**
+ * Static entry point used by the demos.
+ * Every call goes through one shared, connection-pooled {@link HttpProductClient}.
+ */
 public class Client {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(
-            Client.class
-    );
-    private static final String PRODUCT_REQUEST_FORMAT = "http://localhost:7070/sec01/product/%d";
-    private static final String RATING_REQUEST_FORMAT = "http://localhost:7070/sec01/rating/%d";
+    private static final String BASE_URL = "http://localhost:7070";
+    private static final ProductClient SHARED = new HttpProductClient(BASE_URL);
 
-    public static String getProduct(int id) {
-        return callExternalService(PRODUCT_REQUEST_FORMAT.formatted(id));
+    public static ProductClient shared() {
+        return SHARED;
     }
 
-    public static Integer getRating(int id) {
-        return Integer.parseInt(callExternalService(RATING_REQUEST_FORMAT.formatted(id)));
+    public static String getProduct(int id) {
+        return SHARED.getProduct(id);
     }
 
-    private static String callExternalService(String url) {
-        LOGGER.info("Calling externa service at {}", url);
-        try (var stream = URI.create(url).toURL().openStream()) {
-            return new String(stream.readAllBytes());
-        } catch (Exception e)  {
-            LOGGER.error("Error calling externa service", e);
-            throw new RuntimeException(e);
-        }
+    public static Integer getRating(int id) {
+        return SHARED.getRating(id);
     }
 }
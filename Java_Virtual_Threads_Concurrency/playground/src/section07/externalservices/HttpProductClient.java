@@ -0,0 +1,76 @@
+package section07.externalservices;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import section07.metrics.ThrottledErrorLogger;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Transport backed by one shared {@link HttpClient}.
+ * The client keeps connections alive and pools them, so repeated calls skip the TCP handshake.
+ * It prefers HTTP/2 and falls back to HTTP/1.1 when the server does not support it.
+ * The blocking {@code send} parks the calling virtual thread instead of pinning a carrier.
+ */
+public class HttpProductClient implements ProductClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpProductClient.class);
+    private static final String PRODUCT_PATH_FORMAT = "/sec01/product/%d";
+    private static final String RATING_PATH_FORMAT = "/sec01/rating/%d";
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    // during an outage every call fails the same way, a few stack traces are enough
+    private final ThrottledErrorLogger errorLogger = new ThrottledErrorLogger(LOGGER, 10, Duration.ofSeconds(10));
+
+    public HttpProductClient(String baseUrl) {
+        this(baseUrl, HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build());
+    }
+
+    public HttpProductClient(String baseUrl, HttpClient httpClient) {
+        this.baseUrl = baseUrl;
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public String getProduct(int id) {
+        return callExternalService(baseUrl + PRODUCT_PATH_FORMAT.formatted(id));
+    }
+
+    @Override
+    public Integer getRating(int id) {
+        return Integer.parseInt(callExternalService(baseUrl + RATING_PATH_FORMAT.formatted(id)));
+    }
+
+    private String callExternalService(String url) {
+        LOGGER.info("Calling external service at {}", url);
+        var request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        try {
+            var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Unexpected status %d from %s".formatted(response.statusCode(), url));
+            }
+            return response.body();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (Exception e) {
+            errorLogger.log("Error calling external service", e);
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package section07.externalservices;
+
+/**
+ * Abstraction over the product/rating service so different transports (or decorators such as caches)
+ * can be plugged in front of it.
+ */
+public interface ProductClient {
+
+    String getProduct(int id);
+
+    Integer getRating(int id);
+}
@@ -0,0 +1,43 @@
+package section07.externalservices;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+
+/**
+ * The original transport: opens a brand-new connection for every single call.
+ * Kept around as a baseline for benchmarks.
+ */
+public class UrlStreamProductClient implements ProductClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UrlStreamProductClient.class);
+    private static final String PRODUCT_PATH_FORMAT = "/sec01/product/%d";
+    private static final String RATING_PATH_FORMAT = "/sec01/rating/%d";
+
+    private final String baseUrl;
+
+    public UrlStreamProductClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public String getProduct(int id) {
+        return callExternalService(baseUrl + PRODUCT_PATH_FORMAT.formatted(id));
+    }
+
+    @Override
+    public Integer getRating(int id) {
+        return Integer.parseInt(callExternalService(baseUrl + RATING_PATH_FORMAT.formatted(id)));
+    }
+
+    private String callExternalService(String url) {
+        LOGGER.info("Calling external service at {}", url);
+        try (var stream = URI.create(url).toURL().openStream()) {
+            return new String(stream.readAllBytes());
+        } catch (Exception e) {
+            LOGGER.error("Error calling external service", e);
+            throw new RuntimeException(e);
+        }
+    }
+}
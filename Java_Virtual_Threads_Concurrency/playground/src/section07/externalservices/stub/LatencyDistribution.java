@@ -0,0 +1,64 @@
+package section07.externalservices.stub;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How long the stub server waits before answering a request.
+ */
+public sealed interface LatencyDistribution {
+
+    Duration next();
+
+    static LatencyDistribution none() {
+        return fixed(Duration.ZERO);
+    }
+
+    static LatencyDistribution fixed(Duration latency) {
+        return new Fixed(latency);
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        return new Uniform(min, max);
+    }
+
+    // most requests take 'base', but 'tailProbability' of them take 'tail' instead
+    static LatencyDistribution longTail(Duration base, Duration tail, double tailProbability) {
+        return new LongTail(base, tail, tailProbability);
+    }
+
+    record Fixed(Duration latency) implements LatencyDistribution {
+        @Override
+        public Duration next() {
+            return latency;
+        }
+    }
+
+    record Uniform(Duration min, Duration max) implements LatencyDistribution {
+        public Uniform {
+            if (max.compareTo(min) < 0) {
+                throw new IllegalArgumentException("max must not be lower than min");
+            }
+        }
+
+        @Override
+        public Duration next() {
+            long minNanos = min.toNanos();
+            long maxNanos = max.toNanos();
+            return Duration.ofNanos(minNanos == maxNanos ? minNanos : ThreadLocalRandom.current().nextLong(minNanos, maxNanos));
+        }
+    }
+
+    record LongTail(Duration base, Duration tail, double tailProbability) implements LatencyDistribution {
+        public LongTail {
+            if (tailProbability < 0 || tailProbability > 1) {
+                throw new IllegalArgumentException("tailProbability must be between 0 and 1");
+            }
+        }
+
+        @Override
+        public Duration next() {
+            return ThreadLocalRandom.current().nextDouble() < tailProbability ? tail : base;
+        }
+    }
+}
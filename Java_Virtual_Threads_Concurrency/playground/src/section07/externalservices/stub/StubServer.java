@@ -0,0 +1,123 @@
+package section07.externalservices.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * In-process replacement for the product/rating service on localhost:7070.
+ * Serves /sec01/product/{id} and /sec01/rating/{id}, with every exchange handled on its own virtual thread.
+ * Latency and error rate are configurable so load tests can be reproduced on a single box.
+ * <p>
+ * For load tests, run with -Dsun.net.httpserver.nodelay=true: the JDK server writes headers and body separately,
+ * and without TCP_NODELAY each response can wait for a delayed ACK (tens of ms). The property is read once by the
+ * JDK, so it has to be on the command line rather than set from here.
+ */
+public class StubServer implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StubServer.class);
+    public static final int DEFAULT_PORT = 7070;
+    // large backlog so bursts of new connections are not dropped and retried by the kernel
+    private static final int BACKLOG = 4096;
+    private static final String PRODUCT_PATH = "/sec01/product/";
+    private static final String RATING_PATH = "/sec01/rating/";
+
+    private final LatencyDistribution latency;
+    private final double errorRate;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public StubServer(int port, LatencyDistribution latency, double errorRate) {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("errorRate must be between 0 and 1");
+        }
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            this.server = HttpServer.create(new InetSocketAddress("localhost", port), BACKLOG);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.server.setExecutor(executor);
+        this.server.createContext(PRODUCT_PATH, exchange -> handle(exchange, PRODUCT_PATH, id -> "product-" + id));
+        this.server.createContext(RATING_PATH, exchange -> handle(exchange, RATING_PATH, id -> String.valueOf(id % 5 + 1)));
+    }
+
+    public static StubServer start(LatencyDistribution latency, double errorRate) {
+        var stubServer = new StubServer(DEFAULT_PORT, latency, errorRate);
+        stubServer.start();
+        return stubServer;
+    }
+
+    public void start() {
+        server.start();
+        LOGGER.info("stub server listening on {} (latency: {}, error rate: {})", baseUrl(), latency, errorRate);
+        if (!Boolean.getBoolean("sun.net.httpserver.nodelay")) {
+            LOGGER.warn("TCP_NODELAY is off, responses may wait for delayed ACKs; run with -Dsun.net.httpserver.nodelay=true");
+        }
+    }
+
+    public String baseUrl() {
+        var address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort();
+    }
+
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    public long errorCount() {
+        return errors.sum();
+    }
+
+    private void handle(HttpExchange exchange, String prefix, IntFunction<String> responder) throws IOException {
+        try (exchange) {
+            requests.increment();
+            Thread.sleep(latency.next());
+
+            int id;
+            try {
+                id = Integer.parseInt(exchange.getRequestURI().getPath().substring(prefix.length()));
+            } catch (NumberFormatException e) {
+                respond(exchange, 400, "invalid id");
+                return;
+            }
+
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                errors.increment();
+                respond(exchange, 500, "injected failure");
+                return;
+            }
+            respond(exchange, 200, responder.apply(id));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+}
@@ -0,0 +1,148 @@
+package section07.hedging;
+
+import section07.externalservices.ProductClient;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests: when a call has not answered within the given percentile of recent latencies,
+ * the same call is sent once more and whichever answer comes first wins; the other one is cancelled.
+ * Hedges are capped at maxHedgeRatio of all requests so a struggling backend is not hit with twice the load.
+ * Failures are not hedged - that would be a retry, which is a different policy.
+ * The hedge delay comes from end-to-end request latencies, measured from the start of the request whichever attempt
+ * answered. When the hedge wins, that is also a lower bound (a censored sample) of the cancelled primary's latency;
+ * recording only the attempts that finished would drop exactly the slow ones and keep lowering the delay.
+ */
+public class HedgingProductClient implements ProductClient {
+
+    private static final int WINDOW_SIZE = 1_024;
+    private static final int MIN_SAMPLES = 20;
+
+    private final ProductClient delegate;
+    private final ExecutorService executor;
+    private final double hedgePercentile;
+    private final double maxHedgeRatio;
+    private final Duration initialHedgeDelay;
+    private final LatencyTracker latencies = new LatencyTracker(WINDOW_SIZE);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    /**
+     * @param hedgePercentile   e.g. 0.95 to hedge calls slower than the recent p95
+     * @param maxHedgeRatio     upper bound of hedges / requests, e.g. 0.05
+     * @param initialHedgeDelay delay used until enough latency samples have been collected
+     */
+    public HedgingProductClient(ProductClient delegate, ExecutorService executor,
+                                double hedgePercentile, double maxHedgeRatio, Duration initialHedgeDelay) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.hedgePercentile = hedgePercentile;
+        this.maxHedgeRatio = maxHedgeRatio;
+        this.initialHedgeDelay = initialHedgeDelay;
+    }
+
+    @Override
+    public String getProduct(int id) {
+        return hedged(() -> delegate.getProduct(id));
+    }
+
+    @Override
+    public Integer getRating(int id) {
+        return hedged(() -> delegate.getRating(id));
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public double hedgeRate() {
+        long total = requests.sum();
+        return total == 0 ? 0 : (double) hedges.sum() / total;
+    }
+
+    // share of hedges that actually answered before the original call
+    public double winRate() {
+        long hedged = hedges.sum();
+        return hedged == 0 ? 0 : (double) hedgeWins.sum() / hedged;
+    }
+
+    public Duration currentHedgeDelay() {
+        return Duration.ofNanos(hedgeDelayNanos());
+    }
+
+    private <T> T hedged(Supplier<T> call) {
+        requests.increment();
+        long start = System.nanoTime();
+        var result = new CompletableFuture<T>();
+        var pending = new AtomicInteger(1);
+        var primary = launch(call, result, pending, false);
+        Future<?> hedge = null;
+
+        try {
+            try {
+                return result.get(hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // 1 -> 2 fails if the primary has failed meanwhile: the result is already failed, no hedge then
+                if (!result.isDone() && hedgeBudgetAvailable() && pending.compareAndSet(1, 2)) {
+                    hedges.increment();
+                    hedge = launch(call, result, pending, true);
+                }
+            }
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+            // a failure says nothing about how long an answer takes; an interrupted wait is a lower bound of it
+            if (!result.isCompletedExceptionally()) {
+                latencies.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private <T> Future<?> launch(Supplier<T> call, CompletableFuture<T> result, AtomicInteger pending, boolean isHedge) {
+        return executor.submit(() -> {
+            try {
+                T value = call.get();
+                if (result.complete(value) && isHedge) {
+                    hedgeWins.increment();
+                }
+            } catch (Throwable e) {
+                // only fail once no other attempt can still succeed
+                if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+            }
+        });
+    }
+
+    private long hedgeDelayNanos() {
+        if (latencies.count() < MIN_SAMPLES) {
+            return initialHedgeDelay.toNanos();
+        }
+        return latencies.percentileNanos(hedgePercentile);
+    }
+
+    private boolean hedgeBudgetAvailable() {
+        return hedges.sum() < maxHedgeRatio * requests.sum();
+    }
+}
@@ -0,0 +1,62 @@
+package section07.hedging;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the most recent N latency samples in a ring buffer and answers percentile queries over them.
+ * Recording is a couple of atomic writes; percentiles are recomputed at most every refreshInterval
+ * samples, so asking for them on every request stays cheap.
+ */
+public class LatencyTracker {
+
+    private static final int REFRESH_INTERVAL = 64;
+
+    private final AtomicLongArray samples;
+    private final AtomicLong recorded = new AtomicLong();
+    private volatile long[] sortedSnapshot = new long[0];
+    private volatile long snapshotAt;
+
+    public LatencyTracker(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive");
+        }
+        this.samples = new AtomicLongArray(windowSize);
+    }
+
+    public void record(long nanos) {
+        long index = recorded.getAndIncrement();
+        samples.set((int) (index % samples.length()), nanos);
+    }
+
+    public long count() {
+        return Math.min(recorded.get(), samples.length());
+    }
+
+    // returns -1 while no samples have been recorded
+    public long percentileNanos(double percentile) {
+        long total = recorded.get();
+        if (total == 0) {
+            return -1;
+        }
+        var sorted = sortedSnapshot;
+        if (sorted.length == 0 || total - snapshotAt >= REFRESH_INTERVAL) {
+            sorted = snapshot(total);
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.min(Math.max(index, 0), sorted.length - 1)];
+    }
+
+    private long[] snapshot(long total) {
+        int size = (int) Math.min(total, samples.length());
+        var copy = new long[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        sortedSnapshot = copy;
+        snapshotAt = total;
+        return copy;
+    }
+}
@@ -0,0 +1,181 @@
+package section07.metrics;
+
+import org.slf4j.Logger;
+import utils.HistogramSnapshot;
+import utils.LatencyHistogram;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Metrics for one limiter (or any executor): how long tasks waited for a permit, how long they ran,
+ * how many are in flight, how many completed and how many were rejected.
+ * Everything is recorded lock-free; snapshots are cheap enough to log every few seconds.
+ */
+public class LimiterMetrics implements LimiterMetricsMXBean {
+
+    private final String name;
+    private final int limit;
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final LatencyHistogram runTimes = new LatencyHistogram();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final ConcurrentHashMap<Class<?>, LongAdder> failuresByType = new ConcurrentHashMap<>();
+
+    public LimiterMetrics(String name, int limit) {
+        this.name = name;
+        this.limit = limit;
+    }
+
+    // wraps a task for a plain executor: the time between this call and the task starting counts as wait time
+    public <T> Callable<T> instrument(Callable<T> callable) {
+        long submittedAt = System.nanoTime();
+        return () -> {
+            long startedAt = onStart(submittedAt);
+            try {
+                return callable.call();
+            } finally {
+                onEnd(startedAt);
+            }
+        };
+    }
+
+    // returns the start timestamp to pass to onEnd
+    public long onStart(long submittedAtNanos) {
+        long now = System.nanoTime();
+        waitTimes.record(now - submittedAtNanos);
+        int current = inFlight.incrementAndGet();
+        if (current > maxInFlight.get()) {
+            maxInFlight.accumulateAndGet(current, Math::max);
+        }
+        return now;
+    }
+
+    public void onEnd(long startedAtNanos) {
+        runTimes.record(System.nanoTime() - startedAtNanos);
+        inFlight.decrementAndGet();
+        completed.increment();
+    }
+
+    public void onRejected() {
+        rejected.increment();
+    }
+
+    public void onFailure(Throwable error) {
+        failed.increment();
+        failuresByType.computeIfAbsent(error.getClass(), type -> new LongAdder()).increment();
+    }
+
+    // exception class name -> number of tasks that failed with it
+    @Override
+    public Map<String, Long> getFailuresByType() {
+        return failureCounts(LongAdder::sum);
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(name, waitTimes.snapshot(), runTimes.snapshot(), inFlight.get(), maxInFlight.get(),
+                getPermitUtilization(), completed.sum(), rejected.sum(), failed.sum(), getFailuresByType());
+    }
+
+    public Snapshot snapshotAndReset() {
+        return new Snapshot(name, waitTimes.snapshotAndReset(), runTimes.snapshotAndReset(), inFlight.get(),
+                maxInFlight.getAndSet(inFlight.get()), getPermitUtilization(), completed.sumThenReset(), rejected.sumThenReset(), failed.sumThenReset(),
+                failureCounts(LongAdder::sumThenReset));
+    }
+
+    // the adders are reset rather than removed, so a failure recorded concurrently is never lost with its adder
+    private Map<String, Long> failureCounts(ToLongFunction<LongAdder> read) {
+        var counts = new TreeMap<String, Long>();
+        failuresByType.forEach((type, count) -> counts.put(type.getName(), read.applyAsLong(count)));
+        return counts;
+    }
+
+    public void logTo(Logger logger) {
+        var snapshot = snapshot();
+        logger.info("[{}] in flight: {}/{} (max {}), completed: {}, rejected: {}, failed: {} {}",
+                name, snapshot.inFlight(), limit, snapshot.maxInFlight(), snapshot.completed(), snapshot.rejected(),
+                snapshot.failed(), snapshot.failuresByType());
+        logger.info("[{}] wait: {}", name, snapshot.waitTimes());
+        logger.info("[{}] run: {}", name, snapshot.runTimes());
+    }
+
+    public void registerMBean() {
+        try {
+            var objectName = new ObjectName("playground:type=Limiter,name=" + ObjectName.quote(name));
+            var server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("could not register metrics for " + name, e);
+        }
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    @Override
+    public double getPermitUtilization() {
+        return limit <= 0 ? 0 : (double) inFlight.get() / limit;
+    }
+
+    @Override
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    @Override
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    @Override
+    public long getWaitP99Micros() {
+        return waitTimes.snapshot().p99() / 1_000;
+    }
+
+    @Override
+    public long getRunP99Micros() {
+        return runTimes.snapshot().p99() / 1_000;
+    }
+
+    @Override
+    public void reset() {
+        snapshotAndReset();
+    }
+
+    public record Snapshot(String name,
+                           HistogramSnapshot waitTimes,
+                           HistogramSnapshot runTimes,
+                           int inFlight,
+                           int maxInFlight,
+                           double permitUtilization,
+                           long completed,
+                           long rejected,
+                           long failed,
+                           Map<String, Long> failuresByType) {
+    }
+}
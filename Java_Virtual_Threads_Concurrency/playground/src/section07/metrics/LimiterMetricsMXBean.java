@@ -0,0 +1,29 @@
+package section07.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link LimiterMetrics}, e.g. for JConsole or VisualVM.
+ */
+public interface LimiterMetricsMXBean {
+
+    int getInFlight();
+
+    int getMaxInFlight();
+
+    double getPermitUtilization();
+
+    long getCompleted();
+
+    long getRejected();
+
+    long getFailed();
+
+    Map<String, Long> getFailuresByType();
+
+    long getWaitP99Micros();
+
+    long getRunP99Micros();
+
+    void reset();
+}
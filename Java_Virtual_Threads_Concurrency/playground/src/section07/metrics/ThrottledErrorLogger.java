@@ -0,0 +1,57 @@
+package section07.metrics;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs at most maxStackTracesPerWindow errors with their full stack trace per time window.
+ * Anything beyond that is only counted, and the count is reported with the first error of the next window.
+ * During an outage this keeps thousands of identical stack traces from flooding (and blocking on) the appender.
+ */
+public class ThrottledErrorLogger {
+
+    private final Logger logger;
+    private final int maxStackTracesPerWindow;
+    private final long windowNanos;
+    private final long origin = System.nanoTime();
+    // window number in the high 32 bits, errors logged in that window in the low 32 bits, so that moving to
+    // a new window and resetting the count is a single CAS
+    private final AtomicLong state = new AtomicLong();
+    private final LongAdder suppressed = new LongAdder();
+
+    public ThrottledErrorLogger(Logger logger, int maxStackTracesPerWindow, Duration window) {
+        this.logger = logger;
+        this.maxStackTracesPerWindow = maxStackTracesPerWindow;
+        this.windowNanos = window.toNanos();
+    }
+
+    public void log(String message, Throwable error) {
+        long window = (System.nanoTime() - origin) / windowNanos;
+        while (true) {
+            long current = state.get();
+            // a thread that read the clock before another one moved on just counts against the newer window
+            if (window > current >>> 32) {
+                if (state.compareAndSet(current, window << 32 | 1)) {
+                    // only the thread that opened the window reports the previous ones
+                    long suppressedCount = suppressed.sumThenReset();
+                    if (suppressedCount > 0) {
+                        logger.warn("{} similar errors were not logged in the last {} ms", suppressedCount, windowNanos / 1_000_000);
+                    }
+                    logger.error(message, error);
+                    return;
+                }
+            } else if ((int) current < maxStackTracesPerWindow) {
+                if (state.compareAndSet(current, current + 1)) {
+                    logger.error(message, error);
+                    return;
+                }
+            } else {
+                suppressed.increment();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package section07.singleflight;
+
+import section07.externalservices.ProductClient;
+
+/**
+ * Collapses concurrent identical lookups into a single backend call.
+ * Products and ratings have their own SingleFlight, so getProduct(42) and getRating(42) never share a call.
+ */
+public class CoalescingProductClient implements ProductClient {
+
+    private final ProductClient delegate;
+    private final SingleFlight<Integer, String> products = new SingleFlight<>();
+    private final SingleFlight<Integer, Integer> ratings = new SingleFlight<>();
+
+    public CoalescingProductClient(ProductClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getProduct(int id) {
+        return products.execute(id, () -> delegate.getProduct(id));
+    }
+
+    @Override
+    public Integer getRating(int id) {
+        return ratings.execute(id, () -> delegate.getRating(id));
+    }
+
+    public long calls() {
+        return products.calls() + ratings.calls();
+    }
+
+    public long backendCalls() {
+        return products.executions() + ratings.executions();
+    }
+
+    public double suppressionRatio() {
+        long total = calls();
+        return total == 0 ? 0 : 1 - (double) backendCalls() / total;
+    }
+}
@@ -0,0 +1,73 @@
+package section07.singleflight;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Makes sure only one call per key is in flight at a time.
+ * The first caller for a key runs the supplier; everyone arriving while it runs waits on the same future
+ * and receives the same value (or exception). Once the call finishes the key is released,
+ * so the next caller triggers a fresh call - this is coalescing, not caching.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+
+    public V execute(K key, Supplier<? extends V> supplier) {
+        calls.increment();
+
+        var promise = new CompletableFuture<V>();
+        var existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            V value = supplier.get();
+            promise.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            promise.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, promise);
+        }
+    }
+
+    public long calls() {
+        return calls.sum();
+    }
+
+    public long executions() {
+        return executions.sum();
+    }
+
+    // share of calls that piggybacked on somebody else's request instead of hitting the backend
+    public double suppressionRatio() {
+        long total = calls.sum();
+        return total == 0 ? 0 : 1 - (double) executions.sum() / total;
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package utils;
+
+import java.util.Locale;
+
+/**
+ * Outcome of {@link ThreadUtils#benchmark}. Times are in nanoseconds per iteration.
+ * allocatedBytesPerOp counts the heap allocations of every thread in the JVM while the measured runs
+ * were going, so threads forked by the runnable count too (and so does unrelated background work);
+ * it is -1 when the JVM cannot report it.
+ */
+public record BenchmarkResult(int iterations,
+                              long minNanos,
+                              long medianNanos,
+                              long p99Nanos,
+                              long maxNanos,
+                              double opsPerSecond,
+                              long allocatedBytesPerOp) {
+
+    public static final String CSV_HEADER = "iterations,min_ns,median_ns,p99_ns,max_ns,ops_per_sec,allocated_bytes_per_op";
+
+    public String toCsv() {
+        // Locale.ROOT: a decimal comma would add a column
+        return String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%.2f,%d",
+                iterations, minNanos, medianNanos, p99Nanos, maxNanos, opsPerSecond, allocatedBytesPerOp);
+    }
+}
@@ -0,0 +1,139 @@
+package utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fan-out/fan-in replacement for a CountDownLatch shared by a huge number of tasks.
+ * <p>
+ * Tasks are spread round-robin over padded stripe counters, so concurrent completions mostly hit different cache
+ * lines. Only the last task of each stripe touches the shared latch, which has one count per stripe instead of one
+ * per task. A task that throws still counts as completed and its failure is kept, so the waiting thread never hangs.
+ *
+ * <pre>
+ * var tracker = new CompletionTracker(numberOfTasks);
+ * for (...) builder.start(tracker.track(() -> work()));
+ * tracker.await(); // throws CompletionException if any task failed
+ * </pre>
+ */
+public class CompletionTracker {
+
+    public record Failure(int task, Throwable cause) {
+    }
+
+    // 16 ints = 64 bytes, one cache line per stripe
+    private static final int PADDING = 16;
+    private static final int MAX_SUPPRESSED = 16;
+
+    private final int tasks;
+    private final int stripes;
+    private final AtomicIntegerArray remaining;
+    private final CountDownLatch remainingStripes;
+    private final ConcurrentLinkedQueue<Failure> failures = new ConcurrentLinkedQueue<>();
+    private final LongAdder failed = new LongAdder();
+    private int tracked;
+
+    public CompletionTracker(int tasks) {
+        this(tasks, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    public CompletionTracker(int tasks, int stripes) {
+        if (tasks < 0 || stripes <= 0) {
+            throw new IllegalArgumentException("tasks must not be negative and stripes must be positive");
+        }
+        this.tasks = tasks;
+        this.stripes = Math.min(stripes, Math.max(tasks, 1));
+        this.remaining = new AtomicIntegerArray(this.stripes * PADDING);
+        for (int stripe = 0; stripe < this.stripes; stripe++) {
+            remaining.set(stripe * PADDING, tasks / this.stripes + (stripe < tasks % this.stripes ? 1 : 0));
+        }
+        this.remainingStripes = new CountDownLatch(tasks == 0 ? 0 : this.stripes);
+    }
+
+    /**
+     * Wraps the next task. Meant to be called from the thread that forks the tasks, once per task.
+     */
+    public Runnable track(Runnable task) {
+        if (tracked == tasks) {
+            throw new IllegalStateException("already tracking " + tasks + " tasks");
+        }
+        int index = tracked++;
+        return () -> {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                failed.increment();
+                // reported through await() instead of the thread's uncaught exception handler
+                failures.add(new Failure(index, e));
+            } finally {
+                if (remaining.decrementAndGet((index % stripes) * PADDING) == 0) {
+                    remainingStripes.countDown();
+                }
+            }
+        };
+    }
+
+    /**
+     * Counts every task that has not been tracked yet as completed, for a fork loop that stops early.
+     */
+    public void skipUntracked() {
+        while (tracked < tasks) {
+            track(() -> {
+            }).run();
+        }
+    }
+
+    /**
+     * Waits for every task, then throws a CompletionException if any of them failed. The first failure is the cause,
+     * a few more are attached as suppressed exceptions and {@link #failures()} has all of them.
+     */
+    public void await() throws InterruptedException {
+        remainingStripes.await();
+        throwIfFailed();
+    }
+
+    /**
+     * Like {@link #await()} but gives up after the timeout, returning false if some tasks are still running.
+     */
+    public boolean await(Duration timeout) throws InterruptedException {
+        if (!remainingStripes.await(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        throwIfFailed();
+        return true;
+    }
+
+    public List<Failure> failures() {
+        return List.copyOf(failures);
+    }
+
+    public long failed() {
+        return failed.sum();
+    }
+
+    public int stripes() {
+        return stripes;
+    }
+
+    private void throwIfFailed() {
+        if (failures.isEmpty()) {
+            return;
+        }
+        List<Failure> snapshot = new ArrayList<>(failures);
+        var exception = new CompletionException(
+                "%d of %d tasks failed, first was task %d".formatted(snapshot.size(), tasks, snapshot.getFirst().task()),
+                snapshot.getFirst().cause());
+        snapshot.stream()
+                .skip(1)
+                .limit(MAX_SUPPRESSED)
+                .forEach(failure -> exception.addSuppressed(failure.cause()));
+        throw exception;
+    }
+}
@@ -0,0 +1,23 @@
+package utils;
+
+/**
+ * Point-in-time view of a {@link LatencyHistogram}; all values are in nanoseconds.
+ */
+public record HistogramSnapshot(long count,
+                                long mean,
+                                long p50,
+                                long p90,
+                                long p99,
+                                long p999,
+                                long max) {
+
+    @Override
+    public String toString() {
+        return "count=%d mean=%s p50=%s p90=%s p99=%s p99.9=%s max=%s".formatted(
+                count, micros(mean), micros(p50), micros(p90), micros(p99), micros(p999), micros(max));
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1fus", nanos / 1_000D);
+    }
+}
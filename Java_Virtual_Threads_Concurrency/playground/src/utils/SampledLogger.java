@@ -0,0 +1,50 @@
+package utils;
+
+import org.slf4j.Logger;
+
+/**
+ * Logs only 1 in N events of a logger, for per-task log lines when there are a million tasks.
+ * Events are sampled by key (e.g. the task number) rather than at random, so the start and end lines of a
+ * sampled task are both logged. With a rate of 1 every event is logged.
+ */
+public class SampledLogger {
+
+    private final Logger logger;
+    private final int oneIn;
+
+    public SampledLogger(Logger logger, int oneIn) {
+        if (oneIn <= 0) {
+            throw new IllegalArgumentException("oneIn must be positive");
+        }
+        this.logger = logger;
+        this.oneIn = oneIn;
+    }
+
+    /**
+     * Sample rate taken from a system property, e.g. -Dtask.log.sample=1000; defaults to logging everything.
+     */
+    public static SampledLogger fromProperty(Logger logger, String property) {
+        return new SampledLogger(logger, Integer.getInteger(property, 1));
+    }
+
+    public boolean isSampled(long key) {
+        return key % oneIn == 0;
+    }
+
+    // fixed-arity overloads, so unsampled calls don't even allocate a varargs array
+    public void info(long key, String format, Object argument) {
+        if (isSampled(key)) {
+            logger.info(format, argument);
+        }
+    }
+
+    public void info(long key, String format, Object first, Object second) {
+        if (isSampled(key)) {
+            logger.info(format, first, second);
+        }
+    }
+
+    public int oneIn() {
+        return oneIn;
+    }
+}
@@ -1,6 +1,8 @@
 package utils;
 
+import java.lang.management.ManagementFactory;
 import java.time.Duration;
+import java.util.Arrays;
 
 public class ThreadUtils {
     
@@ -20,4 +22,49 @@ public class ThreadUtils {
         double miliseconds = (end - start) / 1_000_000D;
         return String.format("%.2f", miliseconds / 1000D);
     }
+
+    /**
+     * Runs the runnable warmupIterations times without measuring, then measurementIterations times
+     * measuring each run, and summarizes the measured runs.
+     */
+    public static BenchmarkResult benchmark(int warmupIterations, int measurementIterations, Runnable runnable) {
+        if (measurementIterations <= 0) {
+            throw new IllegalArgumentException("measurementIterations must be positive");
+        }
+        for (int i = 0; i < warmupIterations; i++) {
+            runnable.run();
+        }
+
+        var samples = new long[measurementIterations];
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < measurementIterations; i++) {
+            long start = System.nanoTime();
+            runnable.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        long allocatedAfter = allocatedBytes();
+
+        long total = Arrays.stream(samples).sum();
+        Arrays.sort(samples);
+        return new BenchmarkResult(
+                measurementIterations,
+                samples[0],
+                samples[(samples.length - 1) / 2],
+                samples[Math.max((int) Math.ceil(0.99 * samples.length) - 1, 0)],
+                samples[samples.length - 1],
+                total == 0 ? 0 : measurementIterations * 1_000_000_000D / total,
+                allocatedBefore < 0 || allocatedAfter < 0 ? -1 : (allocatedAfter - allocatedBefore) / measurementIterations
+        );
+    }
+
+    // bytes allocated so far by all threads, terminated ones included, or -1 if the JVM cannot tell;
+    // virtual threads allocate on their carriers, so they are counted as well
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+                && threadMXBean.isThreadAllocatedMemorySupported()
+                && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            return threadMXBean.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
 }
@@ -0,0 +1,86 @@
+package parallel;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.stream.Collector;
+
+/**
+ * Thread-safe sum, count, min and max of long values, safe to feed from parallelStream().forEach(...).
+ * Every statistic is a LongAdder / LongAccumulator: under contention each thread updates its own cell instead of
+ * fighting over one variable, and the cells are only added up when the result is read.
+ * The sum is a long, so it does not overflow like the int total of Calculation.
+ */
+public class ConcurrentLongStatistics implements LongConsumer {
+
+    private final LongAdder sum = new LongAdder();
+    private final LongAdder count = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    @Override
+    public void accept(long value) {
+        sum.add(value);
+        count.increment();
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    public ConcurrentLongStatistics combine(ConcurrentLongStatistics other) {
+        sum.add(other.getSum());
+        count.add(other.getCount());
+        min.accumulate(other.getMin());
+        max.accumulate(other.getMax());
+        return this;
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    // Long.MAX_VALUE while empty, like LongSummaryStatistics
+    public long getMin() {
+        return min.get();
+    }
+
+    // Long.MIN_VALUE while empty, like LongSummaryStatistics
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getAverage() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) getSum() / count;
+    }
+
+    public void reset() {
+        sum.reset();
+        count.reset();
+        min.reset();
+        max.reset();
+    }
+
+    /**
+     * A CONCURRENT, UNORDERED collector: a parallel stream accumulates into one shared instance
+     * instead of creating one container per split and combining them.
+     */
+    public static Collector<Number, ?, ConcurrentLongStatistics> toStatistics() {
+        return Collector.of(
+                ConcurrentLongStatistics::new,
+                (statistics, value) -> statistics.accept(value.longValue()),
+                ConcurrentLongStatistics::combine,
+                Collector.Characteristics.CONCURRENT,
+                Collector.Characteristics.UNORDERED,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentLongStatistics{count=" + getCount() + ", sum=" + getSum() + ", min=" + getMin()
+                + ", average=" + getAverage() + ", max=" + getMax() + "}";
+    }
+}
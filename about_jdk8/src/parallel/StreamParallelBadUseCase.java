@@ -47,6 +47,26 @@ public class StreamParallelBadUseCase {
          * Result in sequential: 1783293664
          * Result in parallel: -1512215256
          */
+
+        // a thread-safe accumulator with a long sum gives the same, correct result both ways
+        ConcurrentLongStatistics statistics = new ConcurrentLongStatistics();
+
+        range.stream().forEach(statistics::accept);
+        System.out.println("Statistics in sequential: " + statistics.getSum());
+
+        statistics.reset();
+
+        range.parallelStream().forEach(statistics::accept);
+        System.out.println("Statistics in parallel: " + statistics.getSum());
+
+        System.out.println("Collected in parallel: " + range.parallelStream().collect(ConcurrentLongStatistics.toStatistics()));
+
+        /*
+         * Output:
+         * Statistics in sequential: 499999500000
+         * Statistics in parallel: 499999500000
+         * Collected in parallel: ConcurrentLongStatistics{count=999999, sum=499999500000, min=1, average=500000.0, max=999999}
+         */
     }
 
     private static long measurePerformance(Runnable task, int iterations) {